@@ -91,5 +91,22 @@ public class AnalysisManifest {
         public String getSystemProfilePathString() {
             return systemProfilePath.toString();
         }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof SystemProfile)) {
+                return false;
+            }
+            SystemProfile that = (SystemProfile) other;
+            return systemPaths.equals(that.systemPaths) && systemProfilePath.equals(that.systemProfilePath);
+        }
+        
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(systemPaths, systemProfilePath);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.jshook.analysis;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scores one set of systems under several ranking functions at once.
+ *
+ * All functions read the same MetricTable, and every distinct scoring term (metric, direction,
+ * mapping function and threshold) is computed once as a score column and shared by each function
+ * that uses it. A function then only adds its weighted log-terms and ranks the rows.
+ */
+public final class BatchScorer {
+
+    private final MetricTable table;
+    private final Map<ScoringTerm, double[]> termColumns = new ConcurrentHashMap<>();
+
+    public BatchScorer(MetricTable table) {
+        this.table = table;
+    }
+
+    public MetricTable getTable() {
+        return table;
+    }
+
+    /**
+     * Ranks the systems under one function, reusing the term columns computed so far
+     * @param limit Maximum number of ranked results, or 0 for all systems
+     */
+    public Ranking rank(ScoringFunction scoringFunction, int limit) {
+        ScoringFunction.ScoredRows scored = scoringFunction.scoreRows(table, termColumns);
+        return new Ranking(scoringFunction, scoringFunction.rank(table, scored, limit), scored.getTotalScores());
+    }
+
+    /**
+     * Ranks the systems under every given function
+     * @param limit Maximum number of ranked results per function, or 0 for all systems
+     * @return The ranking of each function, in the order of the given map
+     */
+    public Map<String, Ranking> rankAll(Map<String, ScoringFunction> scoringFunctions, int limit) {
+        Map<String, Ranking> rankings = new LinkedHashMap<>();
+        for (Map.Entry<String, ScoringFunction> entry : scoringFunctions.entrySet()) {
+            rankings.put(entry.getKey(), rank(entry.getValue(), limit));
+        }
+        return rankings;
+    }
+
+    /**
+     * Number of distinct term columns computed so far
+     */
+    public int getDistinctTerms() {
+        return termColumns.size();
+    }
+
+    /**
+     * The ranked results of one function together with the total score of every system
+     */
+    public static final class Ranking {
+        private final ScoringFunction scoringFunction;
+        private final List<ScoringFunction.ScoringResult> results;
+        private final double[] totalScores;
+
+        Ranking(ScoringFunction scoringFunction, List<ScoringFunction.ScoringResult> results, double[] totalScores) {
+            this.scoringFunction = scoringFunction;
+            this.results = results;
+            this.totalScores = totalScores;
+        }
+
+        public ScoringFunction getScoringFunction() { return scoringFunction; }
+
+        /** Ranked results, best first; only the best systems when a limit was given */
+        public List<ScoringFunction.ScoringResult> getResults() { return results; }
+
+        /** Total score of every system in table row order, 0 for disqualified systems */
+        public double[] getTotalScores() { return totalScores; }
+    }
+}
@@ -0,0 +1,95 @@
+package com.jshook.analysis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming parser for fio time-series logs (write_lat_log, write_bw_log, write_iops_log).
+ *
+ * Each line is "time, value, direction, block size[, offset[, priority]]" with the time in
+ * milliseconds. Lines are parsed straight from a fixed 64 KiB buffer without creating strings, and
+ * only time and value are used, so logs of millions of lines are read in constant memory.
+ * Logs may be gzip-compressed (*.log.gz). Lines that do not start with two numbers are skipped.
+ */
+public final class FioLogReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private FioLogReader() {}
+
+    /**
+     * Adds all samples of a log file to a series
+     * @return The number of samples read
+     */
+    public static long read(Path log, TimeSeries.Builder series) throws IOException {
+        try (InputStream input = Files.newInputStream(log)) {
+            return read(log.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(input, BUFFER_SIZE) : input, series);
+        }
+    }
+
+    /**
+     * Adds all samples of a log stream to a series; the stream is not closed
+     * @return The number of samples read
+     */
+    public static long read(InputStream input, TimeSeries.Builder series) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long samples = 0;
+        int field = 0;         // Index of the field being parsed on the current line
+        long number = 0;
+        boolean digits = false; // Whether the current field has digits so far
+        boolean skipping = false; // Rest of the line is ignored
+        boolean fraction = false; // Inside the decimal part of a number, which is dropped
+        long time = 0;
+
+        int read;
+        while ((read = input.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    if (!skipping && field == 1 && digits) {
+                        series.add(time, number);
+                        samples++;
+                    }
+                    field = 0;
+                    number = 0;
+                    digits = false;
+                    skipping = false;
+                    fraction = false;
+                } else if (skipping) {
+                    continue;
+                } else if (b >= '0' && b <= '9') {
+                    if (!fraction) {
+                        number = number * 10 + (b - '0');
+                    }
+                    digits = true;
+                } else if (b == '.' && digits && !fraction) {
+                    fraction = true;
+                } else if (b == ',') {
+                    if (!digits) {
+                        skipping = true; // Empty or malformed field
+                    } else if (field == 0) {
+                        time = number;
+                        field = 1;
+                        number = 0;
+                        digits = false;
+                        fraction = false;
+                    } else {
+                        series.add(time, number);
+                        samples++;
+                        skipping = true; // Direction, block size, offset and priority are not used
+                    }
+                } else if (b != ' ' && b != '\t' && b != '\r') {
+                    skipping = true;
+                }
+            }
+        }
+        if (!skipping && field == 1 && digits) {
+            series.add(time, number); // Last line without a newline
+            samples++;
+        }
+        return samples;
+    }
+}
@@ -1,5 +1,6 @@
 package com.jshook.analysis;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
@@ -23,6 +24,11 @@ public class FioResult {
     public long getTimestamp() { return timestamp; }
     public List<FioJob> getJobs() { return jobs; }
     
+    // Setters for FioResultStreamParser
+    void setFioVersion(String fioVersion) { this.fioVersion = fioVersion; }
+    void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+    void setJobs(List<FioJob> jobs) { this.jobs = jobs; }
+    
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class FioJob {
         
@@ -39,6 +45,11 @@ public class FioResult {
         public String getJobname() { return jobname; }
         public FioMetrics getRead() { return read; }
         public FioMetrics getWrite() { return write; }
+        
+        // Setters for FioResultStreamParser
+        void setJobname(String jobname) { this.jobname = jobname; }
+        void setRead(FioMetrics read) { this.read = read; }
+        void setWrite(FioMetrics write) { this.write = write; }
     }
     
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -56,6 +67,28 @@ public class FioResult {
         @JsonProperty("runtime")
         private long runtime; // milliseconds
         
+        @JsonProperty("total_ios")
+        private long totalIos;
+        
+        // Spread of the bandwidth and IOPS samples fio takes during the run (every 500 ms by default)
+        @JsonProperty("bw_mean")
+        private double bandwidthMean; // KB/s
+        
+        @JsonProperty("bw_dev")
+        private double bandwidthDeviation; // KB/s
+        
+        @JsonProperty("bw_samples")
+        private long bandwidthSamples;
+        
+        @JsonProperty("iops_mean")
+        private double iopsMean;
+        
+        @JsonProperty("iops_stddev")
+        private double iopsDeviation;
+        
+        @JsonProperty("iops_samples")
+        private long iopsSamples;
+        
         @JsonProperty("clat_ns")
         private LatencyStats completionLatency;
         
@@ -64,7 +97,28 @@ public class FioResult {
         public double getBandwidth() { return bandwidth; }
         public double getIops() { return iops; }
         public long getRuntime() { return runtime; }
+        public long getTotalIos() { return totalIos; }
+        public double getBandwidthMean() { return bandwidthMean; }
+        public double getBandwidthDeviation() { return bandwidthDeviation; }
+        public long getBandwidthSamples() { return bandwidthSamples; }
+        public double getIopsMean() { return iopsMean; }
+        public double getIopsDeviation() { return iopsDeviation; }
+        public long getIopsSamples() { return iopsSamples; }
         public LatencyStats getCompletionLatency() { return completionLatency; }
+        
+        // Setters for FioResultStreamParser
+        void setIoBytes(long ioBytes) { this.ioBytes = ioBytes; }
+        void setBandwidth(double bandwidth) { this.bandwidth = bandwidth; }
+        void setIops(double iops) { this.iops = iops; }
+        void setRuntime(long runtime) { this.runtime = runtime; }
+        void setTotalIos(long totalIos) { this.totalIos = totalIos; }
+        void setBandwidthMean(double bandwidthMean) { this.bandwidthMean = bandwidthMean; }
+        void setBandwidthDeviation(double bandwidthDeviation) { this.bandwidthDeviation = bandwidthDeviation; }
+        void setBandwidthSamples(long bandwidthSamples) { this.bandwidthSamples = bandwidthSamples; }
+        void setIopsMean(double iopsMean) { this.iopsMean = iopsMean; }
+        void setIopsDeviation(double iopsDeviation) { this.iopsDeviation = iopsDeviation; }
+        void setIopsSamples(long iopsSamples) { this.iopsSamples = iopsSamples; }
+        void setCompletionLatency(LatencyStats completionLatency) { this.completionLatency = completionLatency; }
     }
     
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -76,15 +130,37 @@ public class FioResult {
         @JsonProperty("percentile")
         private Map<String, Double> percentiles;
         
+        @JsonIgnore
+        private LatencyHistogram histogram; // From "bins" of json+ output, null otherwise
+        
         // Getters  
         public double getMean() { return mean; }
         public Map<String, Double> getPercentiles() { return percentiles; }
+        @JsonIgnore
+        public LatencyHistogram getHistogram() { return histogram; }
+        
+        // Setters for FioResultStreamParser
+        void setMean(double mean) { this.mean = mean; }
+        void setPercentiles(Map<String, Double> percentiles) { this.percentiles = percentiles; }
+        void setHistogram(LatencyHistogram histogram) { this.histogram = histogram; }
+        
+        @JsonProperty("bins")
+        void setBins(Map<String, Long> bins) { this.histogram = bins != null ? LatencyHistogram.fromBins(bins) : null; }
         
         /// Get specific percentile value (e.g., "99.000000" for p99)
         public double getPercentile(String percentile) {
             return percentiles != null ? percentiles.getOrDefault(percentile, 0.0) : 0.0;
         }
         
+        /// Get the latency at any percentile in nanoseconds (e.g. 99.99), from the full histogram
+        /// when fio wrote json+ bins, otherwise only for percentiles fio listed
+        public double getQuantile(double percentile) {
+            if (histogram != null) {
+                return histogram.getValueAtPercentile(percentile);
+            }
+            return getPercentile(String.format(java.util.Locale.ROOT, "%.6f", percentile));
+        }
+        
         /// Get p99 latency in nanoseconds
         public double getP99() {
             return getPercentile("99.000000");
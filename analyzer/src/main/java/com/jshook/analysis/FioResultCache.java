@@ -0,0 +1,152 @@
+package com.jshook.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed cache of parsed fio results.
+ *
+ * Result files are keyed by the SHA-256 digest of their bytes, so byte-identical copies (archived
+ * runs, systems copied between profiles) are parsed into a FioResult only once and the instance is
+ * shared by every workload that references it. Every source a result was read from is recorded,
+ * which makes the duplicates available for reporting. A source that is read again replaces its
+ * previous content, and results without any remaining source are evicted, so rewritten and
+ * deleted files do not pile up in watch mode.
+ */
+public class FioResultCache {
+
+    private final Map<String, CachedResult> results = new ConcurrentHashMap<>();
+    private final NavigableMap<String, CachedResult> sources = new TreeMap<>(); // Guarded by this
+
+    /**
+     * Returns the parsed result for the given file content, parsing it only if no identical
+     * content was seen before
+     * @param source Where the content was read from (file path or archive entry)
+     */
+    public FioResult parse(byte[] content, String source) throws IOException {
+        String digest = digest(content);
+        CachedResult cached = results.get(digest);
+        if (cached == null) {
+            FioResult fioResult = FioResultStreamParser.parse(content);
+            CachedResult parsed = new CachedResult(digest, content.length, fioResult);
+            cached = results.putIfAbsent(digest, parsed);
+            if (cached == null) {
+                cached = parsed;
+            }
+        }
+        return addSource(cached, source).fioResult;
+    }
+
+    /**
+     * Forgets every source in or below a directory, e.g. before a system is read again. Sources
+     * of archive entries ("archive!/entry") count as lying in the archive's directory.
+     */
+    public synchronized void removeSources(Path directory) {
+        String prefix = directory.toString() + File.separator;
+        SortedMap<String, CachedResult> below = sources.subMap(prefix, prefix + Character.MAX_VALUE);
+        for (Map.Entry<String, CachedResult> entry : below.entrySet()) {
+            release(entry.getValue(), entry.getKey());
+        }
+        below.clear();
+    }
+
+    private synchronized CachedResult addSource(CachedResult cached, String source) {
+        // Re-register in case the last source of this content was removed since it was looked up
+        CachedResult current = results.computeIfAbsent(cached.digest, digest -> cached);
+        CachedResult previous = sources.put(source, current);
+        if (previous != null && previous != current) {
+            release(previous, source);
+        }
+        current.sources.add(source);
+        return current;
+    }
+
+    private void release(CachedResult cached, String source) {
+        cached.sources.remove(source);
+        if (cached.sources.isEmpty()) {
+            results.remove(cached.digest, cached);
+        }
+    }
+
+    /**
+     * Number of distinct result contents parsed so far
+     */
+    public synchronized int getDistinctResults() {
+        return results.size();
+    }
+
+    /**
+     * Number of distinct sources the cached results were read from
+     */
+    public synchronized int getTotalSources() {
+        return results.values().stream().mapToInt(cached -> cached.sources.size()).sum();
+    }
+
+    /**
+     * Returns all contents that were read from more than one source, ordered by their first source.
+     * Each group lists its sources in sorted order.
+     */
+    public synchronized List<DuplicateGroup> getDuplicateGroups() {
+        List<DuplicateGroup> groups = new ArrayList<>();
+        for (CachedResult cached : results.values()) {
+            if (cached.sources.size() > 1) {
+                List<String> sources = new ArrayList<>(cached.sources);
+                Collections.sort(sources);
+                groups.add(new DuplicateGroup(cached.digest, cached.size, sources));
+            }
+        }
+        groups.sort(Comparator.comparing(group -> group.getSources().get(0)));
+        return groups;
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedResult {
+        private final String digest;
+        private final int size;
+        private final FioResult fioResult;
+        private final Set<String> sources = new HashSet<>(); // Guarded by the cache
+
+        CachedResult(String digest, int size, FioResult fioResult) {
+            this.digest = digest;
+            this.size = size;
+            this.fioResult = fioResult;
+        }
+    }
+
+    /**
+     * Sources that share byte-identical content
+     */
+    public static class DuplicateGroup {
+        private final String digest;
+        private final int size;
+        private final List<String> sources;
+
+        DuplicateGroup(String digest, int size, List<String> sources) {
+            this.digest = digest;
+            this.size = size;
+            this.sources = sources;
+        }
+
+        public String getDigest() { return digest; }
+        public int getSize() { return size; }
+        public List<String> getSources() { return sources; }
+    }
+}
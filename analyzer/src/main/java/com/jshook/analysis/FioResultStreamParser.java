@@ -0,0 +1,206 @@
+package com.jshook.analysis;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/// Streaming extractor for fio JSON output.
+///
+/// Produces the same FioResult as databinding, but walks the token stream and only reads the
+/// fields FioResult holds: the fio version and timestamp, each job's name, and per direction
+/// io_bytes, bw, iops, runtime, total_ios, the bw and iops sample statistics and the clat_ns
+/// mean, percentiles and json+ bins (which go straight into a LatencyHistogram). Everything else
+/// (disk_util, job options, iodepth and latency buckets, ...) is skipped with skipChildren,
+/// so no tree or intermediate objects are built for it.
+public final class FioResultStreamParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private FioResultStreamParser() {}
+
+    /// Parses a complete fio JSON document
+    public static FioResult parse(byte[] content) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at the start of fio output");
+            }
+            return readResult(parser);
+        }
+    }
+
+    private static FioResult readResult(JsonParser parser) throws IOException {
+        FioResult result = new FioResult();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "fio version":
+                    result.setFioVersion(parser.getValueAsString());
+                    break;
+                case "timestamp":
+                    result.setTimestamp(parser.getValueAsLong());
+                    break;
+                case "jobs":
+                    result.setJobs(value == JsonToken.START_ARRAY ? readJobs(parser) : skipValue(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private static List<FioResult.FioJob> readJobs(JsonParser parser) throws IOException {
+        List<FioResult.FioJob> jobs = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                jobs.add(readJob(parser));
+            } else {
+                jobs.add(skipValue(parser));
+            }
+        }
+        return jobs;
+    }
+
+    private static FioResult.FioJob readJob(JsonParser parser) throws IOException {
+        FioResult.FioJob job = new FioResult.FioJob();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "jobname":
+                    job.setJobname(parser.getValueAsString());
+                    break;
+                case "read":
+                    job.setRead(value == JsonToken.START_OBJECT ? readMetrics(parser) : skipValue(parser));
+                    break;
+                case "write":
+                    job.setWrite(value == JsonToken.START_OBJECT ? readMetrics(parser) : skipValue(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return job;
+    }
+
+    private static FioResult.FioMetrics readMetrics(JsonParser parser) throws IOException {
+        FioResult.FioMetrics metrics = new FioResult.FioMetrics();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "io_bytes":
+                    metrics.setIoBytes(parser.getValueAsLong());
+                    break;
+                case "bw":
+                    metrics.setBandwidth(parser.getValueAsDouble());
+                    break;
+                case "iops":
+                    metrics.setIops(parser.getValueAsDouble());
+                    break;
+                case "runtime":
+                    metrics.setRuntime(parser.getValueAsLong());
+                    break;
+                case "total_ios":
+                    metrics.setTotalIos(parser.getValueAsLong());
+                    break;
+                case "bw_mean":
+                    metrics.setBandwidthMean(parser.getValueAsDouble());
+                    break;
+                case "bw_dev":
+                    metrics.setBandwidthDeviation(parser.getValueAsDouble());
+                    break;
+                case "bw_samples":
+                    metrics.setBandwidthSamples(parser.getValueAsLong());
+                    break;
+                case "iops_mean":
+                    metrics.setIopsMean(parser.getValueAsDouble());
+                    break;
+                case "iops_stddev":
+                    metrics.setIopsDeviation(parser.getValueAsDouble());
+                    break;
+                case "iops_samples":
+                    metrics.setIopsSamples(parser.getValueAsLong());
+                    break;
+                case "clat_ns":
+                    metrics.setCompletionLatency(value == JsonToken.START_OBJECT ? readLatency(parser) : skipValue(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return metrics;
+    }
+
+    private static FioResult.LatencyStats readLatency(JsonParser parser) throws IOException {
+        FioResult.LatencyStats latency = new FioResult.LatencyStats();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "mean":
+                    latency.setMean(parser.getValueAsDouble());
+                    break;
+                case "percentile":
+                    latency.setPercentiles(value == JsonToken.START_OBJECT ? readPercentiles(parser) : skipValue(parser));
+                    break;
+                case "bins":
+                    latency.setHistogram(value == JsonToken.START_OBJECT ? readBins(parser) : skipValue(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return latency;
+    }
+
+    private static Map<String, Double> readPercentiles(JsonParser parser) throws IOException {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String percentile = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                percentiles.put(percentile, null);
+            } else if (value.isScalarValue()) {
+                percentiles.put(percentile, parser.getValueAsDouble());
+            } else {
+                throw new IOException("Unexpected " + value + " for percentile " + percentile);
+            }
+        }
+        return percentiles;
+    }
+
+    /// Reads the json+ latency bins (nanoseconds to sample count) straight into a histogram
+    private static LatencyHistogram readBins(JsonParser parser) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String bin = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if (!value.isNumeric()) {
+                throw new IOException("Unexpected " + value + " for latency bin " + bin);
+            }
+            try {
+                histogram.record(Long.parseLong(bin), parser.getValueAsLong());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid latency bin " + bin + ": " + e.getMessage());
+            }
+        }
+        return histogram;
+    }
+
+    /// Skips a value that has no meaningful object form (null or a mismatched type)
+    private static <T> T skipValue(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+}
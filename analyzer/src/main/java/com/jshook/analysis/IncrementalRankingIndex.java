@@ -0,0 +1,300 @@
+package com.jshook.analysis;
+
+import java.util.*;
+
+/**
+ * Ranking of a changing set of systems under one ranking function, kept up to date as systems
+ * are added, updated or removed instead of re-scoring the whole fleet.
+ *
+ * Scored systems are held in a tree ordered by score, so a change costs O(log n). Normalized
+ * components keep running MetricStats, which take values back as well as add them, and the
+ * mapped values of all systems in a sorted multiset that gives the minmax range. Other systems
+ * are only re-scored when a stat the normalization uses has moved: the minimum or maximum for
+ * minmax, the mean or standard deviation for zscore. rank applies all changes of a table before
+ * checking the stats, so a batch re-scores the fleet once at most. Scores and ranking order are
+ * the same as those of BatchScorer for the same systems.
+ *
+ * Used in watch mode, where a batch of result changes usually touches a few systems of a large
+ * report. All methods are synchronized.
+ */
+public final class IncrementalRankingIndex {
+
+    private final ScoringFunction scoringFunction;
+    private final ScoringTerm[] terms;
+    private final List<TreeMap<Double, Integer>> mappedValues = new ArrayList<>(); // null for terms without normalization
+    private final MetricStats[] stats; // Running stats of the mapped values, null for terms without normalization
+    private final double[][] scoredStats; // Stats each normalized term's current scores were computed with
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranked = new TreeSet<>(IncrementalRankingIndex::compareEntries);
+    private long rescoredSystems;
+
+    public IncrementalRankingIndex(ScoringFunction scoringFunction) {
+        this.scoringFunction = scoringFunction;
+        this.terms = scoringFunction.getTerms();
+        this.stats = new MetricStats[terms.length];
+        this.scoredStats = new double[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            boolean normalized = terms[i].getNormalization() != ScoringTerm.Normalization.NONE;
+            mappedValues.add(normalized ? new TreeMap<>() : null);
+            stats[i] = normalized ? new MetricStats() : null;
+        }
+    }
+
+    public ScoringFunction getScoringFunction() {
+        return scoringFunction;
+    }
+
+    /**
+     * Adds a system or replaces its metrics; unchanged metrics (the same instance) cost nothing
+     * @param systemKey Unique key of the system, e.g. "profile__system"
+     */
+    public synchronized void put(String systemKey, SystemMetrics metrics) {
+        Entry entry = replace(systemKey, metrics);
+        if (entry != null) {
+            refresh(Collections.singletonList(entry));
+        }
+    }
+
+    /**
+     * Removes a system
+     * @return Whether the system was in the index
+     */
+    public synchronized boolean remove(String systemKey) {
+        if (!detach(systemKey)) {
+            return false;
+        }
+        updateStats();
+        return true;
+    }
+
+    /**
+     * Brings the index in line with the systems of a metric table and ranks them as
+     * BatchScorer.rank does; only new or changed systems, and systems affected by moved
+     * normalization stats, are scored
+     * @param limit Maximum number of ranked results, or 0 for all systems
+     */
+    public synchronized BatchScorer.Ranking rank(MetricTable table, int limit) {
+        Map<String, Integer> rows = new HashMap<>();
+        List<Entry> changed = new ArrayList<>();
+        for (int row = 0; row < table.size(); row++) {
+            SystemMetrics metrics = table.getSystem(row);
+            String systemKey = metrics.getSystemProfile() + "__" + metrics.getSystemName();
+            rows.put(systemKey, row);
+            Entry entry = replace(systemKey, metrics);
+            if (entry != null) {
+                changed.add(entry);
+            }
+        }
+        boolean removed = false;
+        for (String systemKey : new ArrayList<>(entries.keySet())) {
+            if (!rows.containsKey(systemKey)) {
+                removed |= detach(systemKey);
+            }
+        }
+        // Stats are checked once for the whole table rather than once per changed system
+        if (!changed.isEmpty() || removed) {
+            refresh(changed);
+        }
+
+        double[] totalScores = new double[table.size()];
+        int resultCount = limit <= 0 ? table.size() : Math.min(limit, table.size());
+        List<ScoringFunction.ScoringResult> results = new ArrayList<>(resultCount);
+        List<Entry> ties = new ArrayList<>();
+        for (Entry entry : ranked) {
+            totalScores[rows.get(entry.systemKey)] = entry.totalScore;
+            if (!ties.isEmpty() && compareScore(ties.get(0), entry) != 0) {
+                addResults(results, ties, rows, resultCount);
+                ties.clear();
+            }
+            ties.add(entry);
+        }
+        addResults(results, ties, rows, resultCount);
+        return new BatchScorer.Ranking(scoringFunction, results, totalScores);
+    }
+
+    /**
+     * Number of systems in the index
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of times a system was scored since the index was created
+     */
+    public synchronized long getRescoredSystems() {
+        return rescoredSystems;
+    }
+
+    /**
+     * Adds a group of equally ranked systems in table order, as BatchScorer breaks ties
+     */
+    private void addResults(List<ScoringFunction.ScoringResult> results, List<Entry> ties,
+                            Map<String, Integer> rows, int resultCount) {
+        ties.sort(Comparator.comparingInt(entry -> rows.get(entry.systemKey)));
+        for (Entry entry : ties) {
+            if (results.size() >= resultCount) {
+                return;
+            }
+            results.add(scoringFunction.createResult(entry.metrics.getSystemName(), entry.totalScore,
+                entry.componentScores.clone(), entry.raw.clone(), !entry.qualified));
+        }
+    }
+
+    /**
+     * Stores a system's metrics and mapped values, updating the running stats, without scoring it
+     * @return The new entry, or null if the metrics are unchanged (the same instance)
+     */
+    private Entry replace(String systemKey, SystemMetrics metrics) {
+        Entry previous = entries.get(systemKey);
+        if (previous != null && previous.metrics == metrics) {
+            return null;
+        }
+        if (previous != null) {
+            ranked.remove(previous);
+            removeMappedValues(previous);
+        }
+
+        Entry entry = new Entry(systemKey, metrics, terms.length);
+        for (int i = 0; i < terms.length; i++) {
+            entry.raw[i] = terms[i].getMetric().valueOf(metrics);
+            entry.mapped[i] = terms[i].map(entry.raw[i]);
+            if (entry.raw[i] == 0.0) {
+                entry.qualified = false; // Missing or zero metric disqualifies the system
+            }
+        }
+        entries.put(systemKey, entry);
+        addMappedValues(entry);
+        return entry;
+    }
+
+    /**
+     * Drops a system and its mapped values without re-scoring anything
+     * @return Whether the system was in the index
+     */
+    private boolean detach(String systemKey) {
+        Entry entry = entries.remove(systemKey);
+        if (entry == null) {
+            return false;
+        }
+        ranked.remove(entry);
+        removeMappedValues(entry);
+        return true;
+    }
+
+    /**
+     * Checks the stats after a set of changes and scores the changed systems, unless a stat
+     * moved and all systems were re-scored anyway
+     */
+    private void refresh(List<Entry> changed) {
+        if (!updateStats()) {
+            for (Entry entry : changed) {
+                score(entry);
+            }
+        }
+    }
+
+    private void addMappedValues(Entry entry) {
+        for (int i = 0; i < terms.length; i++) {
+            TreeMap<Double, Integer> values = mappedValues.get(i);
+            if (values != null && entry.raw[i] != 0.0) {
+                values.merge(entry.mapped[i], 1, Integer::sum);
+                stats[i].add(entry.mapped[i]);
+            }
+        }
+    }
+
+    private void removeMappedValues(Entry entry) {
+        for (int i = 0; i < terms.length; i++) {
+            TreeMap<Double, Integer> values = mappedValues.get(i);
+            if (values != null && entry.raw[i] != 0.0) {
+                values.computeIfPresent(entry.mapped[i], (value, count) -> count > 1 ? count - 1 : null);
+                stats[i].remove(entry.mapped[i], values.isEmpty() ? 0.0 : values.firstKey(), values.isEmpty() ? 0.0 : values.lastKey());
+            }
+        }
+    }
+
+    /**
+     * Re-scores all systems if a stat that a normalized term uses moved since the term's scores
+     * were computed
+     * @return Whether all systems were re-scored
+     */
+    private boolean updateStats() {
+        boolean moved = false;
+        for (int i = 0; i < terms.length; i++) {
+            if (stats[i] == null) {
+                continue;
+            }
+            double[] used = terms[i].getNormalization() == ScoringTerm.Normalization.MINMAX
+                ? new double[] {stats[i].getMin(), stats[i].getMax()}
+                : new double[] {stats[i].getMean(), stats[i].getStdDev()};
+            if (!Arrays.equals(used, scoredStats[i])) {
+                scoredStats[i] = used;
+                moved = true;
+            }
+        }
+        if (moved) {
+            List<Entry> all = new ArrayList<>(entries.values());
+            ranked.clear();
+            for (Entry entry : all) {
+                score(entry);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Scores one system and (re-)inserts it into the ranking
+     */
+    private void score(Entry entry) {
+        ranked.remove(entry);
+        if (entry.qualified) {
+            for (int i = 0; i < terms.length; i++) {
+                entry.componentScores[i] = terms[i].score(entry.raw[i], entry.mapped[i], stats[i]);
+            }
+            entry.totalScore = scoringFunction.totalScore(entry.componentScores);
+        } else {
+            Arrays.fill(entry.componentScores, 0.0);
+            entry.totalScore = 0.0;
+        }
+        ranked.add(entry);
+        rescoredSystems++;
+    }
+
+    /**
+     * Orders by descending score with qualified systems first
+     */
+    private static int compareScore(Entry a, Entry b) {
+        int byScore = Double.compare(b.totalScore, a.totalScore);
+        if (byScore != 0) {
+            return byScore;
+        }
+        return Boolean.compare(b.qualified, a.qualified);
+    }
+
+    /**
+     * Orders the tree; systems with equal rank are ordered by key here and by table order when ranked
+     */
+    private static int compareEntries(Entry a, Entry b) {
+        int byScore = compareScore(a, b);
+        return byScore != 0 ? byScore : a.systemKey.compareTo(b.systemKey);
+    }
+
+    private static final class Entry {
+        final String systemKey;
+        final SystemMetrics metrics;
+        final double[] raw;
+        final double[] mapped;
+        final double[] componentScores;
+        boolean qualified = true;
+        double totalScore;
+
+        Entry(String systemKey, SystemMetrics metrics, int terms) {
+            this.systemKey = systemKey;
+            this.metrics = metrics;
+            this.raw = new double[terms];
+            this.mapped = new double[terms];
+            this.componentScores = new double[terms];
+        }
+    }
+}
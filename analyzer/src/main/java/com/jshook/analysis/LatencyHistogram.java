@@ -0,0 +1,183 @@
+package com.jshook.analysis;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Completion latency distribution in nanoseconds, built from the clat_ns.bins of fio's json+
+ * output.
+ *
+ * Values are counted in log-linear buckets in the style of HdrHistogram: values below 256 ns have
+ * a bucket each, above that every power of two is split into 128 buckets, so a bucket is never
+ * wider than 1/128 of its values. That is finer than fio's own bins (64 per power of two), so
+ * every fio bin keeps its own bucket and quantiles are within 0.4% of the latencies fio
+ * reported, at any percentile. Only non-empty buckets are stored, in index order. Histograms of
+ * jobs, runs or systems merge by adding bucket counts, which loses nothing.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private int[] indexes = new int[16];
+    private long[] counts = new long[16];
+    private int size;
+    private long totalCount;
+
+    /**
+     * Builds a histogram from fio's bins, which map a latency in nanoseconds to a sample count
+     */
+    public static LatencyHistogram fromBins(Map<String, Long> bins) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (Map.Entry<String, Long> bin : bins.entrySet()) {
+            if (bin.getValue() != null) {
+                histogram.record(Long.parseLong(bin.getKey()), bin.getValue());
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Counts samples of one latency
+     * @param value Latency in nanoseconds
+     */
+    public void record(long value, long count) {
+        if (value < 0 || count < 0) {
+            throw new IllegalArgumentException("Negative latency or count: " + value + " x " + count);
+        }
+        if (count > 0) {
+            addBucket(bucketIndex(value), count);
+        }
+    }
+
+    /**
+     * Adds all samples of another histogram
+     */
+    public void merge(LatencyHistogram other) {
+        if (other.size == 0) {
+            return;
+        }
+        int[] mergedIndexes = new int[size + other.size];
+        long[] mergedCounts = new long[size + other.size];
+        int merged = 0, i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && indexes[i] < other.indexes[j])) {
+                mergedIndexes[merged] = indexes[i];
+                mergedCounts[merged++] = counts[i++];
+            } else if (i == size || other.indexes[j] < indexes[i]) {
+                mergedIndexes[merged] = other.indexes[j];
+                mergedCounts[merged++] = other.counts[j++];
+            } else {
+                mergedIndexes[merged] = indexes[i];
+                mergedCounts[merged++] = counts[i++] + other.counts[j++];
+            }
+        }
+        indexes = mergedIndexes;
+        counts = mergedCounts;
+        size = merged;
+        totalCount += other.totalCount;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Latency below or at which the given percentage of samples lies
+     * @param percentile Percentage in [0, 100], e.g. 99.9
+     * @return Latency in nanoseconds, or 0 if the histogram is empty
+     */
+    public double getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0.0;
+        }
+        double fraction = Math.min(100.0, Math.max(0.0, percentile)) / 100.0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * totalCount));
+        long seen = 0;
+        for (int i = 0; i < size; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return representativeValue(indexes[i]);
+            }
+        }
+        return representativeValue(indexes[size - 1]);
+    }
+
+    /**
+     * Mean latency in nanoseconds, from the bucket values
+     */
+    public double getMean() {
+        if (totalCount == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += representativeValue(indexes[i]) * (double) counts[i];
+        }
+        return sum / totalCount;
+    }
+
+    public double getMin() {
+        return size > 0 ? representativeValue(indexes[0]) : 0.0;
+    }
+
+    public double getMax() {
+        return size > 0 ? representativeValue(indexes[size - 1]) : 0.0;
+    }
+
+    // Bucket access for ResultsStore
+
+    int getBucketCount() {
+        return size;
+    }
+
+    int getBucketIndex(int bucket) {
+        return indexes[bucket];
+    }
+
+    long getBucketSamples(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Adds samples to a bucket; appending in index order costs O(1)
+     */
+    void addBucket(int index, long count) {
+        int position = size > 0 && indexes[size - 1] < index ? -(size + 1) : Arrays.binarySearch(indexes, 0, size, index);
+        if (position >= 0) {
+            counts[position] += count;
+        } else {
+            position = -(position + 1);
+            if (size == indexes.length) {
+                indexes = Arrays.copyOf(indexes, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(indexes, position, indexes, position + 1, size - position);
+            System.arraycopy(counts, position, counts, position + 1, size - position);
+            indexes[position] = index;
+            counts[position] = count;
+            size++;
+        }
+        totalCount += count;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Middle of the values counted in a bucket, as fio reports its bins
+     */
+    static double representativeValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) - 1) / 2.0;
+    }
+}
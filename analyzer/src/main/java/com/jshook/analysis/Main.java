@@ -18,7 +18,12 @@ public class Main {
         try {
             String reportDir = null;
             boolean updateMode = false;
+            boolean watchMode = false;
+            boolean fromStore = false;
             Set<String> rankingFunctions = new LinkedHashSet<>();
+            int scanThreads = ParallelDirectoryWalker.DEFAULT_PARALLELISM;
+            int analysisThreads = Runtime.getRuntime().availableProcessors();
+            int topSystems = 0;
             
             // Parse command line arguments
             for (int i = 0; i < args.length; i++) {
@@ -34,6 +39,12 @@ public class Main {
                     case "-U":
                         updateMode = true;
                         break;
+                    case "--watch":
+                        watchMode = true;
+                        break;
+                    case "--from-store":
+                        fromStore = true;
+                        break;
                     case "--ranking-functions":
                         if (i + 1 < args.length) {
                             String functionArg = args[++i];
@@ -50,6 +61,15 @@ public class Main {
                             System.exit(1);
                         }
                         break;
+                    case "--scan-threads":
+                        scanThreads = parsePositiveInt(args, ++i, "--scan-threads", "threads");
+                        break;
+                    case "--threads":
+                        analysisThreads = parsePositiveInt(args, ++i, "--threads", "threads");
+                        break;
+                    case "--top":
+                        topSystems = parsePositiveInt(args, ++i, "--top", "systems");
+                        break;
                     case "--help":
                     case "-h":
                         printUsage();
@@ -62,7 +82,15 @@ public class Main {
                 }
             }
             
+            if (fromStore && watchMode) {
+                System.err.println("Error: --from-store cannot be combined with --watch");
+                System.exit(1);
+            }
+            
             ReportAnalyzer analyzer = new ReportAnalyzer();
+            analyzer.setScanThreads(scanThreads);
+            analyzer.setAnalysisThreads(analysisThreads);
+            analyzer.setTopSystems(topSystems);
             if (!rankingFunctions.isEmpty()) {
                 analyzer.setRankingFunctions(rankingFunctions);
                 System.out.println("Using ranking functions: " + String.join(", ", rankingFunctions));
@@ -70,12 +98,14 @@ public class Main {
             
             System.out.println("Starting Cross-System Analysis...");
             
-            Path reportPath = analyzer.executeAnalysis(reportDir, updateMode);
+            Path reportPath = fromStore
+                ? analyzer.executeAnalysisFromStore(reportDir)
+                : analyzer.executeAnalysis(reportDir, updateMode);
             
             System.out.println("Analysis completed successfully!");
             System.out.println("Report directory: " + reportPath);
             
-            AnalysisManifest manifest = analyzer.enumerateResults();
+            AnalysisManifest manifest = fromStore ? analyzer.getStoredManifest() : analyzer.enumerateResults(reportPath);
             System.out.println("Found " + manifest.getSystemProfiles().size() + " system profiles:");
             
             for (String systemProfile : manifest.getSystemProfiles()) {
@@ -88,6 +118,10 @@ public class Main {
             
             System.out.println("Total systems with workload files: " + manifest.getTotalDirectories());
             
+            if (watchMode) {
+                new ResultTreeWatcher(analyzer, reportPath, manifest).run();
+            }
+            
         } catch (IOException e) {
             System.err.println("Error during analysis: " + e.getMessage());
             System.exit(1);
@@ -98,16 +132,44 @@ public class Main {
         }
     }
     
+    /**
+     * Parses the value of a numeric option, exiting with an error unless it is a positive integer
+     * @param i Index of the value in args
+     * @param unit What the number counts, for the error message
+     */
+    private static int parsePositiveInt(String[] args, int i, String flag, String unit) {
+        if (i >= args.length) {
+            System.err.println("Error: " + flag + " requires a number of " + unit);
+            System.exit(1);
+        }
+        int value;
+        try {
+            value = Integer.parseInt(args[i]);
+        } catch (NumberFormatException e) {
+            value = 0;
+        }
+        if (value < 1) {
+            System.err.println("Error: " + flag + " requires a positive number");
+            System.exit(1);
+        }
+        return value;
+    }
+    
     private static void printUsage() {
         System.out.println("Usage: java com.jshook.analysis.Main [OPTIONS]");
         System.out.println();
         System.out.println("Options:");
         System.out.println("  --report-dir DIR        Specify report directory name");
         System.out.println("  -U                      Update mode - allow overwriting existing report");
+        System.out.println("  --watch                 Keep running and re-analyze systems whose results change");
+        System.out.println("  --from-store            Re-run the analysis from results.store instead of the result files");
         System.out.println("  --ranking-functions NAME Name(s) of ranking function(s) from ranking-functions.json");
         System.out.println("                           Supports comma-separated values and multiple occurrences");
         System.out.println("                           Examples: --ranking-functions default,throughput-oriented");
         System.out.println("                                    --ranking-functions realtime --ranking-functions balanced");
+        System.out.println("  --scan-threads N        Threads used to walk the result tree (default: " + ParallelDirectoryWalker.DEFAULT_PARALLELISM + ")");
+        System.out.println("  --threads N             Systems analyzed, and ranking sections rendered, in parallel (default: number of cores)");
+        System.out.println("  --top N                 Only list the N best systems in each ranking (default: all)");
         System.out.println("  -h, --help              Show this help message");
         System.out.println();
         System.out.println("Cross-System Analysis tool for comparing perfscripts results.");
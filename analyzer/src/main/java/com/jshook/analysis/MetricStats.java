@@ -0,0 +1,92 @@
+package com.jshook.analysis;
+
+/**
+ * Running statistics of one metric over a fleet of systems: count, minimum, maximum, mean and
+ * standard deviation, as used by the minmax and zscore normalizations of scoring components.
+ *
+ * Values are added one at a time in a single pass (Welford's algorithm for mean and variance),
+ * without boxing or keeping the values, so stats can be built while streaming a column and
+ * updated as systems are added or removed.
+ */
+final class MetricStats {
+
+    /**
+     * Smallest minmax score, given to the weakest system. Component scores are multiplied, so a
+     * score of 0 would zero the weakest system's total and tie it with disqualified systems.
+     */
+    static final double MINMAX_FLOOR = 0.01;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double m2; // Sum of squared differences from the mean
+
+    /**
+     * Adds the value of one system
+     */
+    void add(double value) {
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Takes back the value of one system, reversing add. Running stats cannot narrow their range
+     * by themselves, so the minimum and maximum of the remaining values are passed in.
+     */
+    void remove(double value, double remainingMin, double remainingMax) {
+        if (count <= 1) {
+            count = 0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            mean = 0.0;
+            m2 = 0.0;
+            return;
+        }
+        double delta = value - mean;
+        count--;
+        mean -= delta / count;
+        m2 = Math.max(0.0, m2 - delta * (value - mean));
+        min = remainingMin;
+        max = remainingMax;
+    }
+
+    long getCount() { return count; }
+    double getMin() { return count > 0 ? min : 0.0; }
+    double getMax() { return count > 0 ? max : 0.0; }
+    double getMean() { return mean; }
+    double getRange() { return getMax() - getMin(); }
+
+    /**
+     * Population standard deviation of the values added so far
+     */
+    double getStdDev() {
+        return count > 0 ? Math.sqrt(Math.max(0.0, m2 / count)) : 0.0;
+    }
+
+    /**
+     * Brings a value into [0, 1] scale relative to these stats; minmax scores lie in
+     * [MINMAX_FLOOR, 1]
+     */
+    double normalize(double value, ScoringTerm.Normalization normalization) {
+        switch (normalization) {
+            case MINMAX:
+                double range = getRange();
+                if (range == 0) return 0.5; // All values are the same
+                return MINMAX_FLOOR + (1.0 - MINMAX_FLOOR) * (value - getMin()) / range;
+            case ZSCORE:
+                double stdDev = getStdDev();
+                if (stdDev == 0) return 0.5; // All values are the same
+                double zscore = (value - mean) / stdDev;
+                // Convert z-score to [0, 1] using sigmoid
+                return 1.0 / (1.0 + Math.exp(-zscore));
+            case NONE:
+            default:
+                return value;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.jshook.analysis;
+
+import java.util.*;
+
+/**
+ * Column-oriented view of the metrics of a set of systems.
+ *
+ * Each ScoringMetric is held as one primitive double[] with a row per system, extracted on first
+ * use and kept for later lookups. Ranking functions score a fleet with tight loops over these
+ * columns instead of walking SystemMetrics objects, and functions that use the same metric share
+ * its column.
+ */
+public final class MetricTable {
+
+    private final List<SystemMetrics> systems;
+    private final EnumMap<ScoringMetric, double[]> columns = new EnumMap<>(ScoringMetric.class);
+
+    private MetricTable(List<SystemMetrics> systems) {
+        this.systems = systems;
+    }
+
+    /**
+     * Creates a table over the given systems; rows follow the list order
+     */
+    public static MetricTable of(List<SystemMetrics> systems) {
+        return new MetricTable(List.copyOf(systems));
+    }
+
+    /**
+     * Number of systems (rows) in the table
+     */
+    public int size() {
+        return systems.size();
+    }
+
+    public SystemMetrics getSystem(int row) {
+        return systems.get(row);
+    }
+
+    public String getSystemName(int row) {
+        return systems.get(row).getSystemName();
+    }
+
+    /**
+     * Returns the values of a metric for all systems. The array is shared and must not be modified.
+     */
+    public synchronized double[] column(ScoringMetric metric) {
+        double[] column = columns.get(metric);
+        if (column == null) {
+            column = new double[systems.size()];
+            for (int row = 0; row < column.length; row++) {
+                column[row] = metric.valueOf(systems.get(row));
+            }
+            columns.put(metric, column);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,130 @@
+package com.jshook.analysis;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Fork/join directory walker for large result trees.
+ *
+ * On network filesystems a sequential walk spends nearly all of its time waiting for metadata
+ * round trips. Each directory is listed by its own fork/join task, so listings and stats of
+ * sibling directories overlap. Results are assembled in directory listing order, exactly as a
+ * sequential Files.walk would return them, independent of the order in which tasks complete.
+ */
+public class ParallelDirectoryWalker {
+
+    /** Default parallelism; directory walks are I/O bound, so this exceeds the core count */
+    public static final int DEFAULT_PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final ForkJoinPool pool;
+
+    public ParallelDirectoryWalker() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    public ParallelDirectoryWalker(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Finds all regular files below root whose file name matches the filter. Symbolic links are
+     * followed; links that loop back to an ancestor are reported and skipped.
+     * @return Matching files, in the same order as Files.walk
+     */
+    public List<Path> findFiles(Path root, Predicate<String> fileNameFilter) throws IOException {
+        BasicFileAttributes rootAttributes = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!rootAttributes.isDirectory()) {
+            return fileNameFilter.test(root.getFileName().toString()) ? List.of(root) : List.of();
+        }
+        return pool.invoke(new FindFilesTask(root, fileNameFilter, ancestorsOf(null, rootAttributes.fileKey())));
+    }
+
+    private static Set<Object> ancestorsOf(Set<Object> parentAncestors, Object fileKey) {
+        Set<Object> ancestors = parentAncestors != null ? new HashSet<>(parentAncestors) : new HashSet<>();
+        if (fileKey != null) {
+            ancestors.add(fileKey);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Lists one directory, forking a task for each subdirectory
+     */
+    private static class FindFilesTask extends RecursiveTask<List<Path>> {
+        private static final long serialVersionUID = 1L;
+        private final Path directory;
+        private final Predicate<String> fileNameFilter;
+        private final Set<Object> ancestors;
+
+        FindFilesTask(Path directory, Predicate<String> fileNameFilter, Set<Object> ancestors) {
+            this.directory = directory;
+            this.fileNameFilter = fileNameFilter;
+            this.ancestors = ancestors;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            // Each slot holds either a matching file or the task for a subdirectory
+            List<Object> slots = new ArrayList<>();
+            List<FindFilesTask> subtasks = new ArrayList<>();
+            List<Path> children = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path child : stream) {
+                    children.add(child);
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: Cannot list directory " + directory + ": " + e.getMessage());
+                return List.of();
+            }
+
+            for (Path child : children) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    // Dangling links and entries removed during the walk are simply not there
+                    continue;
+                }
+
+                if (attributes.isDirectory()) {
+                    Object fileKey = attributes.fileKey();
+                    if (fileKey != null && ancestors.contains(fileKey)) {
+                        System.err.println("Warning: Skipping symbolic link loop at " + child);
+                        continue;
+                    }
+                    FindFilesTask subtask = new FindFilesTask(child, fileNameFilter, ancestorsOf(ancestors, fileKey));
+                    subtasks.add(subtask);
+                    slots.add(subtask);
+                } else if (attributes.isRegularFile() && fileNameFilter.test(child.getFileName().toString())) {
+                    slots.add(child);
+                }
+            }
+
+            invokeAll(subtasks);
+            List<Path> results = new ArrayList<>();
+            for (Object slot : slots) {
+                if (slot instanceof FindFilesTask) {
+                    results.addAll(((FindFilesTask) slot).join());
+                } else {
+                    results.add((Path) slot);
+                }
+            }
+            return results;
+        }
+    }
+}
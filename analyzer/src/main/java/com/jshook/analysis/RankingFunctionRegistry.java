@@ -0,0 +1,203 @@
+package com.jshook.analysis;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Process-wide registry of the ranking functions defined in ranking-functions.json.
+ *
+ * The file is read from the current directory, or from the classpath when no local copy exists.
+ * It is parsed and validated once, and every valid function is compiled into an immutable
+ * ScoringFunction. Lookups only compare the file's modification time with the loaded snapshot
+ * and reload when it changed, so repeated scoring does no JSON work.
+ */
+public final class RankingFunctionRegistry {
+
+    static final String FILENAME = "ranking-functions.json";
+
+    private static final Set<String> MAPPING_FUNCTIONS = Set.of("linear", "log", "inverse", "threshold");
+    private static final Set<String> NORMALIZATIONS = Set.of("minmax", "zscore", "none");
+    private static final Set<String> EASING_FUNCTIONS = Set.of("linear", "exponential", "sigmoid");
+
+    private static final RankingFunctionRegistry INSTANCE = new RankingFunctionRegistry(Paths.get(FILENAME));
+
+    private final Path localFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Snapshot snapshot;
+
+    RankingFunctionRegistry(Path localFile) {
+        this.localFile = localFile;
+    }
+
+    public static RankingFunctionRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the compiled ranking function with the given name. Unknown names fall back to
+     * 'default', and to a hardcoded function when that is missing as well.
+     */
+    public ScoringFunction getFunction(String functionName) {
+        Snapshot current = current();
+        ScoringFunction function = current.functions.get(functionName);
+        if (function != null) {
+            return function;
+        }
+        if (current.warnedNames.add(functionName)) {
+            System.err.println("Warning: ranking function '" + functionName + "' not found, using 'default'");
+        }
+        function = current.functions.get("default");
+        if (function != null) {
+            return function;
+        }
+        if (current.warnedNames.add("default")) {
+            System.err.println("Warning: 'default' ranking function not found, using hardcoded default");
+        }
+        return ScoringFunction.createHardcodedDefault();
+    }
+
+    /**
+     * Returns the names of all valid ranking functions, in file order
+     */
+    public Set<String> getFunctionNames() {
+        Snapshot current = current();
+        if (current.functions.isEmpty()) {
+            return Set.of("default");
+        }
+        return Collections.unmodifiableSet(current.functions.keySet());
+    }
+
+    /**
+     * Returns the first ranking function in the file (used as default)
+     */
+    public String getFirstFunctionName() {
+        Snapshot current = current();
+        return current.functions.isEmpty() ? "default" : current.functions.keySet().iterator().next();
+    }
+
+    /**
+     * Returns the loaded snapshot, reloading it when the local file appeared, disappeared or
+     * was modified since it was loaded
+     */
+    private synchronized Snapshot current() {
+        long mtime = localModificationTime();
+        if (snapshot == null || snapshot.mtime != mtime) {
+            snapshot = load(mtime);
+        }
+        return snapshot;
+    }
+
+    private long localModificationTime() {
+        try {
+            return Files.getLastModifiedTime(localFile).toMillis();
+        } catch (IOException e) {
+            // No local file: the classpath copy is used
+            return -1;
+        }
+    }
+
+    private Snapshot load(long mtime) {
+        Map<String, ScoringFunction> functions = new LinkedHashMap<>();
+        try (InputStream inputStream = open(mtime)) {
+            if (inputStream == null) {
+                System.err.println("Warning: " + FILENAME + " not found, using hardcoded default");
+                return new Snapshot(mtime, functions);
+            }
+
+            Map<String, ScoringFunction.ScoringConfiguration> configurations = objectMapper.readValue(
+                inputStream, new TypeReference<LinkedHashMap<String, ScoringFunction.ScoringConfiguration>>() {});
+            for (Map.Entry<String, ScoringFunction.ScoringConfiguration> entry : configurations.entrySet()) {
+                String problem = validate(entry.getValue());
+                if (problem == null) {
+                    try {
+                        functions.put(entry.getKey(), new ScoringFunction(entry.getValue()));
+                    } catch (IllegalArgumentException e) {
+                        problem = e.getMessage();
+                    }
+                }
+                if (problem != null) {
+                    System.err.println("Warning: Skipping invalid ranking function '" + entry.getKey() + "': " + problem);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading ranking functions: " + e.getMessage());
+            System.err.println("Using hardcoded default ranking function");
+            functions.clear();
+        }
+        return new Snapshot(mtime, functions);
+    }
+
+    private InputStream open(long mtime) throws IOException {
+        if (mtime >= 0) {
+            System.out.println("Loading " + FILENAME + " from: " + localFile.toAbsolutePath());
+            return Files.newInputStream(localFile);
+        }
+        System.out.println("Loading " + FILENAME + " from classpath");
+        return RankingFunctionRegistry.class.getClassLoader().getResourceAsStream(FILENAME);
+    }
+
+    /**
+     * Checks a ranking function definition
+     * @return A description of the first problem found, or null if the definition is valid
+     */
+    static String validate(ScoringFunction.ScoringConfiguration configuration) {
+        if (configuration == null) {
+            return "definition is empty";
+        }
+        if (configuration.getComponents() == null || configuration.getComponents().isEmpty()) {
+            return "no components defined";
+        }
+        for (ScoringFunction.ScoringComponent component : configuration.getComponents()) {
+            if (component == null) {
+                return "empty component";
+            }
+            String metricName = component.getMetricName();
+            if (metricName == null || metricName.isEmpty()) {
+                return "component without metric_name";
+            }
+            if (!Double.isFinite(component.getWeight()) || component.getWeight() < 0) {
+                return "invalid weight " + component.getWeight() + " for " + metricName;
+            }
+            if (!isOneOf(component.getMappingFunction(), MAPPING_FUNCTIONS)) {
+                return "unknown mapping_function '" + component.getMappingFunction() + "' for " + metricName;
+            }
+            if (!isOneOf(component.getNormalization(), NORMALIZATIONS)) {
+                return "unknown normalization '" + component.getNormalization() + "' for " + metricName;
+            }
+            if (!isOneOf(component.getEasingFunction(), EASING_FUNCTIONS)) {
+                return "unknown easing_function '" + component.getEasingFunction() + "' for " + metricName;
+            }
+            if (component.getThresholdValue() != null && !Double.isFinite(component.getThresholdValue())) {
+                return "invalid threshold_value for " + metricName;
+            }
+            if (!Double.isFinite(component.getThresholdPenalty())) {
+                return "invalid threshold_penalty for " + metricName;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOneOf(String value, Set<String> allowed) {
+        return value != null && allowed.contains(value.toLowerCase());
+    }
+
+    /**
+     * Ranking functions compiled from one version of the file
+     */
+    private static final class Snapshot {
+        private final long mtime;
+        private final Map<String, ScoringFunction> functions;
+        private final Set<String> warnedNames = Collections.synchronizedSet(new HashSet<>());
+
+        Snapshot(long mtime, Map<String, ScoringFunction> functions) {
+            this.mtime = mtime;
+            this.functions = functions;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.jshook.analysis;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
-import java.nio.file.FileVisitOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -17,10 +24,22 @@ import java.util.stream.Collectors;
  */
 public class ReportAnalyzer {
     
+    /** Result file listing written by bin/run-fio-tests into each results directory */
+    private static final String FILES_JSON = "files.json";
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Path currentWorkingDirectory;
     private String rankingFunctionName;
     private Set<String> rankingFunctionNames;
+    private int scanThreads = ParallelDirectoryWalker.DEFAULT_PARALLELISM;
+    private int analysisThreads = Runtime.getRuntime().availableProcessors();
+    private int topSystems; // 0 lists every system
+    private Map<String, IncrementalRankingIndex> rankingIndexes; // By scope and function; null unless enabled
+    private ParallelDirectoryWalker directoryWalker;
+    private ResultsStore resultsStore; // Source of Stage 2 workloads in --from-store runs
+    private ResultsStore.Builder storeBuilder; // Collects Stage 2 workloads of full runs and later watch-mode updates
+    private final FioResultCache resultCache = new FioResultCache();
+    private final SystemMetricsRegistry metricsRegistry = new SystemMetricsRegistry(objectMapper);
     
     public ReportAnalyzer() {
         this.currentWorkingDirectory = Paths.get(System.getProperty("user.dir"));
@@ -48,6 +67,56 @@ public class ReportAnalyzer {
         this.rankingFunctionName = null; // Clear single function when multiple are set
     }
     
+    /**
+     * Returns the root of the result tree
+     */
+    Path getWorkingDirectory() {
+        return currentWorkingDirectory;
+    }
+    
+    /**
+     * Sets the number of threads used to walk the result tree
+     */
+    public void setScanThreads(int scanThreads) {
+        this.scanThreads = scanThreads;
+        this.directoryWalker = null;
+    }
+    
+    /**
+     * Sets the number of systems analyzed concurrently in Stage 2, which also bounds the
+     * ranking function sections rendered concurrently in Stages 3 and 4
+     */
+    public void setAnalysisThreads(int analysisThreads) {
+        this.analysisThreads = analysisThreads;
+    }
+    
+    /**
+     * Keeps the rankings of Stages 3 and 4 in incremental indexes across runs, so that later
+     * runs only re-score systems whose metrics changed (watch mode)
+     */
+    public void enableIncrementalRanking() {
+        if (rankingIndexes == null) {
+            rankingIndexes = new java.util.concurrent.ConcurrentHashMap<>();
+        }
+    }
+    
+    /**
+     * Limits each ranking table to the given number of best systems; 0 lists every system
+     */
+    public void setTopSystems(int topSystems) {
+        this.topSystems = topSystems;
+    }
+    
+    /**
+     * Returns the shared directory walker, creating its pool on first use
+     */
+    private synchronized ParallelDirectoryWalker getDirectoryWalker() {
+        if (directoryWalker == null) {
+            directoryWalker = new ParallelDirectoryWalker(scanThreads);
+        }
+        return directoryWalker;
+    }
+    
     /**
      * Ensures ranking-functions.json exists in the local directory, copying from classpath if needed
      */
@@ -123,24 +192,53 @@ public class ReportAnalyzer {
      * Uses leading path matching and derives system names by eliding common leading/trailing components
      */
     public AnalysisManifest enumerateResults() throws IOException {
+        // Index the result tree in a single walk, then answer all candidate checks from the index
+        return enumerateResults(ResultDirectoryIndex.build(currentWorkingDirectory, null, getDirectoryWalker().getPool()));
+    }
+    
+    /**
+     * Stage 1: Enumerate Results incrementally
+     * Reuses the scan cache persisted in the report directory, so only directories whose
+     * modification time changed since the previous run are listed again. The refreshed
+     * cache is written back alongside manifest.json.
+     */
+    public AnalysisManifest enumerateResults(Path reportPath) throws IOException {
+        ScanCache cache = ScanCache.load(reportPath, currentWorkingDirectory, objectMapper);
+        ResultDirectoryIndex index = ResultDirectoryIndex.build(currentWorkingDirectory, cache, getDirectoryWalker().getPool());
+        System.out.println("Indexed result tree: " + index.getListedDirectories() + " directories listed, "
+            + index.getReusedDirectories() + " reused from " + ScanCache.FILENAME);
+        
+        try {
+            index.toScanCache().save(reportPath, objectMapper);
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to save " + ScanCache.FILENAME + ": " + e.getMessage());
+        }
+        
+        return enumerateResults(index);
+    }
+    
+    /**
+     * Groups the candidate result directories of an index into system profiles
+     */
+    private AnalysisManifest enumerateResults(ResultDirectoryIndex index) {
         Map<String, List<Path>> rawSystemProfileGroups = new HashMap<>();
         
         // First pass: collect all system paths by profile
-        Files.walk(currentWorkingDirectory, 3)
-            .filter(Files::isDirectory)
+        index.getCandidateDirectories().stream()
             .filter(dir -> !dir.getFileName().toString().startsWith("report_"))
             .filter(dir -> !dir.getFileName().toString().equals("report"))
             .filter(dir -> !dir.getFileName().toString().equals("src"))
             .filter(dir -> !dir.getFileName().toString().equals("target"))
             .filter(dir -> !dir.getFileName().toString().equals("perfscripts"))
             .filter(dir -> !dir.getFileName().toString().equals("docs"))
-            .filter(dir -> !dir.equals(currentWorkingDirectory))
             .filter(dir -> {
                 String relativePath = currentWorkingDirectory.relativize(dir).toString();
                 return !relativePath.startsWith("perfscripts/") && !relativePath.startsWith("perfscripts\\");
             })
-            .filter(this::shouldScanDirectory)
-            .filter(this::containsFioJsonFiles)
+            // Item #10 from analysis_method.md: directories with .noscan files are excluded
+            .filter(index::shouldScanDirectory)
+            // logs.tar.gz also counts, as it indicates compressed fio.json files
+            .filter(index::containsFioJsonFiles)
             .forEach(dir -> {
                 String relativePath = currentWorkingDirectory.relativize(dir).toString();
                 String systemProfile = sanitizeFilename(extractSystemProfile(relativePath));
@@ -165,58 +263,6 @@ public class ReportAnalyzer {
         return new AnalysisManifest(systemProfileGroups);
     }
     
-    /**
-     * Checks if directory should be scanned (not excluded by .noscan file)
-     * Item #10 from analysis_method.md: directories with .noscan files are excluded
-     */
-    private boolean shouldScanDirectory(Path directory) {
-        try {
-            // Check if the directory itself contains a .noscan file
-            if (Files.exists(directory.resolve(".noscan"))) {
-                return false;
-            }
-            
-            // Check parent directories up to current working directory for .noscan files
-            Path current = directory.getParent();
-            while (current != null && !current.equals(currentWorkingDirectory)) {
-                if (Files.exists(current.resolve(".noscan"))) {
-                    return false;
-                }
-                current = current.getParent();
-            }
-            
-            return true;
-        } catch (Exception e) {
-            // On error, allow scanning (conservative approach)
-            return true;
-        }
-    }
-    
-    /**
-     * Checks if directory contains any *.fio.json files (recursively)
-     * Also checks for logs.tar.gz which indicates compressed fio.json files
-     */
-    private boolean containsFioJsonFiles(Path directory) {
-        try {
-            // Check if directory has logs.tar.gz first
-            if (Files.exists(directory.resolve("logs.tar.gz"))) {
-                return true;
-            }
-            
-            // Check if directory has .fio.json files (follow symlinks but limit depth)
-            // We walk with max depth of 2 to avoid parent directories being included
-            // when they only contain .fio.json files in subdirectories
-            boolean hasFiles = Files.walk(directory, 2, FileVisitOption.FOLLOW_LINKS)
-                .filter(Files::isRegularFile)
-                .anyMatch(path -> path.getFileName().toString().endsWith(".fio.json"));
-            
-            return hasFiles;
-        } catch (IOException e) {
-            System.out.println("Error checking directory " + directory + ": " + e.getMessage());
-            return false;
-        }
-    }
-    
     /**
      * Extracts system profile name from relative path using leading path matching
      */
@@ -516,34 +562,34 @@ public class ReportAnalyzer {
      */
     public void createMarkdownManifest(Path reportDir, AnalysisManifest manifest) throws IOException {
         Path markdownFile = reportDir.resolve("manifest.md");
-        StringBuilder md = new StringBuilder();
-        
-        md.append("# Cross-System Analysis Manifest\n\n");
-        md.append("Generated: ").append(java.time.LocalDateTime.now()).append("\n\n");
-        md.append("## Summary\n\n");
-        md.append("- **System Profiles Found**: ").append(manifest.getSystemProfiles().size()).append("\n");
-        md.append("- **Total Systems**: ").append(manifest.getTotalDirectories()).append("\n\n");
-        
-        md.append("## System Profile Details\n\n");
-        
-        for (String systemProfileName : manifest.getSystemProfiles()) {
-            AnalysisManifest.SystemProfile systemProfile = manifest.getSystemProfile(systemProfileName);
-            Map<String, Path> systemPaths = systemProfile.getSystemPaths();
-            
-            md.append("### ").append(systemProfileName).append("\n\n");
-            md.append("Systems: ").append(systemPaths.size()).append("\n\n");
-            
-            for (Map.Entry<String, Path> entry : systemPaths.entrySet()) {
-                String systemName = entry.getKey();
-                Path systemPath = entry.getValue();
-                String relativeSystemPath = currentWorkingDirectory.relativize(systemPath).toString();
-                md.append("- **System Name**: `").append(systemName).append("`\n");
-                md.append("  **System Path**: `").append(relativeSystemPath).append("`\n");
+        try (ReportWriter md = ReportWriter.create(markdownFile)) {
+            md.append("# Cross-System Analysis Manifest\n\n");
+            md.append("Generated: ").append(java.time.LocalDateTime.now()).append("\n\n");
+            md.append("## Summary\n\n");
+            md.append("- **System Profiles Found**: ").append(manifest.getSystemProfiles().size()).append("\n");
+            md.append("- **Total Systems**: ").append(manifest.getTotalDirectories()).append("\n\n");
+            
+            md.append("## System Profile Details\n\n");
+            
+            for (String systemProfileName : manifest.getSystemProfiles()) {
+                AnalysisManifest.SystemProfile systemProfile = manifest.getSystemProfile(systemProfileName);
+                Map<String, Path> systemPaths = systemProfile.getSystemPaths();
+            
+                md.append("### ").append(systemProfileName).append("\n\n");
+                md.append("Systems: ").append(systemPaths.size()).append("\n\n");
+            
+                for (Map.Entry<String, Path> entry : systemPaths.entrySet()) {
+                    String systemName = entry.getKey();
+                    Path systemPath = entry.getValue();
+                    String relativeSystemPath = currentWorkingDirectory.relativize(systemPath).toString();
+                    md.append("- **System Name**: `").append(systemName).append("`\n");
+                    md.append("  **System Path**: `").append(relativeSystemPath).append("`\n");
+                }
+                md.append("\n");
             }
-            md.append("\n");
+            
+            md.commit();
         }
-        
-        Files.write(markdownFile, md.toString().getBytes());
     }
     
     /**
@@ -558,7 +604,7 @@ public class ReportAnalyzer {
      */
     public Path executeAnalysis(String reportDir, boolean updateMode) throws IOException {
         Path reportPath = prepareReportTarget(reportDir, updateMode);
-        AnalysisManifest manifest = enumerateResults();
+        AnalysisManifest manifest = enumerateResults(reportPath);
         createManifest(reportPath, manifest);
         createMarkdownManifest(reportPath, manifest);
         
@@ -574,67 +620,244 @@ public class ReportAnalyzer {
         return reportPath;
     }
     
+    /**
+     * Executes Stages 2 to 4 from the results store of a previous full analysis, without walking
+     * the result tree or parsing result files
+     */
+    public Path executeAnalysisFromStore(String reportDir) throws IOException {
+        Path reportPath = prepareReportTarget(reportDir, true);
+        Path storePath = reportPath.resolve(ResultsStore.FILENAME);
+        if (!Files.isRegularFile(storePath)) {
+            throw new IOException("No " + ResultsStore.FILENAME + " in " + reportPath + "; run a full analysis first");
+        }
+        resultsStore = ResultsStore.open(storePath, currentWorkingDirectory);
+        AnalysisManifest manifest = resultsStore.getManifest();
+        System.out.println("Read " + manifest.getTotalDirectories() + " systems from " + ResultsStore.FILENAME);
+        createManifest(reportPath, manifest);
+        createMarkdownManifest(reportPath, manifest);
+        
+        // Stage 2: Generate individual system reports
+        analyzeSystems(reportPath, manifest, systemKey -> true);
+        System.out.println("Kept DUPLICATE_RESULTS.md of the full analysis; result files were not read");
+        
+        // Stage 3: Generate system performance profile reports
+        executeStage3Analysis(reportPath, manifest);
+        
+        // Stage 4: Generate cross profile comparisons
+        executeStage4Analysis(reportPath, manifest);
+        
+        return reportPath;
+    }
+    
+    /**
+     * Returns the manifest of the results store read by executeAnalysisFromStore
+     * @return The manifest, or null if no store was read
+     */
+    public AnalysisManifest getStoredManifest() {
+        return resultsStore != null ? resultsStore.getManifest() : null;
+    }
+    
     /**
      * Stage 2: Single Directory Analysis
-     * Analyzes each system separately and generates individual reports
+     * Analyzes each system separately and generates individual reports, and saves the parsed
+     * workloads to the results store for later --from-store runs
      */
     private void executeStage2Analysis(Path reportPath, AnalysisManifest manifest) throws IOException {
+        // The builder is kept, so watch-mode updates can rewrite the store with the systems they re-analyze
+        storeBuilder = new ResultsStore.Builder(currentWorkingDirectory);
+        analyzeSystems(reportPath, manifest, systemKey -> true);
+        saveResultsStore(reportPath, manifest);
+        
+        createDuplicateResultsReport(reportPath);
+    }
+    
+    /**
+     * Re-runs Stage 2 for the selected systems after their results changed, then rewrites the
+     * results store and DUPLICATE_RESULTS.md so they match the updated reports
+     * @param selected Selects systems by their "profile__system" key
+     * @return Metrics of the analyzed systems, keyed by "profile__system" in manifest order
+     */
+    Map<String, SystemMetrics> updateSystems(Path reportPath, AnalysisManifest manifest, Predicate<String> selected) throws IOException {
+        Map<String, SystemMetrics> results = analyzeSystems(reportPath, manifest, selected);
+        if (storeBuilder != null) {
+            saveResultsStore(reportPath, manifest);
+        }
+        createDuplicateResultsReport(reportPath);
+        return results;
+    }
+    
+    private void saveResultsStore(Path reportPath, AnalysisManifest manifest) {
+        try {
+            int systems = storeBuilder.write(reportPath.resolve(ResultsStore.FILENAME), manifest);
+            System.out.println("Saved " + systems + " systems to " + ResultsStore.FILENAME);
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to save " + ResultsStore.FILENAME + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Runs Stage 2 for the selected systems of a manifest on a pool of analysisThreads workers.
+     * Each system's console output is buffered and printed as one block in manifest order, so
+     * logs and reports are the same as for a sequential run.
+     * @param selected Selects systems by their "profile__system" key
+     * @return Metrics of the analyzed systems, keyed by "profile__system" in manifest order
+     */
+    Map<String, SystemMetrics> analyzeSystems(Path reportPath, AnalysisManifest manifest, Predicate<String> selected) throws IOException {
+        List<String> systemKeys = new ArrayList<>();
+        List<Callable<SystemMetrics>> tasks = new ArrayList<>();
         for (String systemProfile : manifest.getSystemProfiles()) {
             Map<String, Path> systems = manifest.getSystemsForProfile(systemProfile);
             
             for (Map.Entry<String, Path> entry : systems.entrySet()) {
                 String systemName = entry.getKey();
                 Path systemDir = entry.getValue();
+                String systemKey = systemProfile + "__" + systemName;
+                if (!selected.test(systemKey)) {
+                    continue;
+                }
                 
-                System.out.println("Analyzing system: " + systemProfile + "__" + systemName);
-                analyzeSystemDirectory(reportPath, systemProfile, systemName, systemDir);
+                systemKeys.add(systemKey);
+                tasks.add(() -> {
+                    System.out.println("Analyzing system: " + systemKey);
+                    return analyzeSystemDirectory(reportPath, systemProfile, systemName, systemDir);
+                });
             }
         }
+        
+        Map<String, SystemMetrics> results = new LinkedHashMap<>();
+        if (tasks.isEmpty()) {
+            return results;
+        }
+        ExecutorService executor =
+            Executors.newFixedThreadPool(Math.max(1, Math.min(analysisThreads, tasks.size())));
+        SystemLog.install();
+        try {
+            List<Future<SystemLog.Captured<SystemMetrics>>> futures = new ArrayList<>();
+            for (Callable<SystemMetrics> task : tasks) {
+                futures.add(executor.submit(() -> SystemLog.capture(task)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                results.put(systemKeys.get(i), futures.get(i).get().replay());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analyzing systems", e);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            SystemLog.uninstall();
+        }
+        return results;
+    }
+    
+    /**
+     * Lists result files with byte-identical content, which were parsed only once
+     */
+    private void createDuplicateResultsReport(Path reportPath) throws IOException {
+        List<FioResultCache.DuplicateGroup> duplicates = resultCache.getDuplicateGroups();
+        String rootPrefix = currentWorkingDirectory.toString() + File.separator;
+        
+        try (ReportWriter report = ReportWriter.create(reportPath.resolve("DUPLICATE_RESULTS.md"))) {
+            report.append("# Duplicate Result Files\n\n");
+            report.append("**Generated**: ").append(java.time.LocalDateTime.now()).append("\n\n");
+            report.append("Read ").append(resultCache.getTotalSources()).append(" result files with ")
+                  .append(resultCache.getDistinctResults()).append(" distinct contents; each distinct content was parsed once.\n\n");
+            
+            if (duplicates.isEmpty()) {
+                report.append("No duplicate result files found.\n");
+            } else {
+                report.append("Found ").append(duplicates.size()).append(" groups of byte-identical result files:\n\n");
+                for (FioResultCache.DuplicateGroup group : duplicates) {
+                    report.append("## ").append(group.getDigest(), 0, 12)
+                          .append(" (").append(group.getSize()).append(" bytes, ")
+                          .append(group.getSources().size()).append(" copies)\n\n");
+                    for (String source : group.getSources()) {
+                        String relativeSource = source.startsWith(rootPrefix) ? source.substring(rootPrefix.length()) : source;
+                        report.append("- `").append(relativeSource).append("`\n");
+                    }
+                    report.append("\n");
+                }
+            }
+            
+            report.commit();
+        }
+        if (!duplicates.isEmpty()) {
+            System.out.println("Found " + duplicates.size() + " groups of duplicate result files, see DUPLICATE_RESULTS.md");
+        }
     }
     
     /**
      * Analyzes a single system directory and generates its report
+     * @return The metrics written next to the report
      */
-    private void analyzeSystemDirectory(Path reportPath, String systemProfile, String systemName, Path systemDir) throws IOException {
+    SystemMetrics analyzeSystemDirectory(Path reportPath, String systemProfile, String systemName, Path systemDir) throws IOException {
         // Create report filename: systemProfile__systemName.md
         String reportFilename = systemProfile + "__" + systemName + ".md";
         Path systemReportPath = reportPath.resolve(reportFilename);
         
-        StringBuilder report = new StringBuilder();
-        report.append("# System Analysis Report\n\n");
-        report.append("**System Profile**: ").append(systemProfile).append("\n");
-        report.append("**System Name**: ").append(systemName).append("\n");
-        report.append("**Generated**: ").append(java.time.LocalDateTime.now()).append("\n\n");
-        
-        // Find workload files
-        List<Path> workloadFiles = findWorkloadFiles(systemDir);
-        report.append("## Workload Summary\n\n");
-        report.append("Found ").append(workloadFiles.size()).append(" workload files:\n\n");
-        
-        for (Path workloadFile : workloadFiles) {
-            String relativePath = systemDir.relativize(workloadFile).toString();
-            report.append("- `").append(relativePath).append("`\n");
-        }
-        
-        // Perform Stage 2 analysis
-        report.append("\n## Performance Analysis\n\n");
-        
         SystemMetrics systemMetrics = new SystemMetrics(systemName, systemProfile);
-        systemMetrics.setTotalWorkloads(workloadFiles.size());
-        
-        try {
-            WorkloadAnalyzer analyzer = new WorkloadAnalyzer();
-            WorkloadAnalyzer.SystemAnalysis analysis = analyzer.analyzeSystem(systemDir, workloadFiles);
+        try (ReportWriter report = ReportWriter.create(systemReportPath)) {
+            report.append("# System Analysis Report\n\n");
+            report.append("**System Profile**: ").append(systemProfile).append("\n");
+            report.append("**System Name**: ").append(systemName).append("\n");
+            report.append("**Generated**: ").append(java.time.LocalDateTime.now()).append("\n\n");
+            
+            // Workloads come from the results store in --from-store runs, otherwise from the result tree
+            WorkloadAnalyzer analyzer = new WorkloadAnalyzer(resultCache);
+            List<String> listedFiles = new ArrayList<>();
+            Map<WorkloadAnalyzer.WorkloadResult, Path> workloadDirectories = new IdentityHashMap<>();
+            List<WorkloadAnalyzer.WorkloadResult> workloads;
+            if (resultsStore != null) {
+                ResultsStore.StoredSystem storedSystem = resultsStore.getSystem(systemProfile, systemName);
+                if (storedSystem == null) {
+                    throw new IOException("System " + systemProfile + "__" + systemName + " is not in " + ResultsStore.FILENAME);
+                }
+                listedFiles.addAll(storedSystem.getListedFiles());
+                workloads = storedSystem.getWorkloads();
+            } else {
+                resultCache.removeSources(systemDir); // Files rewritten or deleted since the last read
+                workloads = readSystemWorkloads(analyzer, systemDir, listedFiles, workloadDirectories);
+            }
+            if (storeBuilder != null) {
+                storeBuilder.addSystem(systemProfile, systemName, systemDir, listedFiles, workloads);
+            }
+            if (resultsStore == null) {
+                attachTimeSeries(systemDir, workloadDirectories);
+            }
+            workloads = detectSteadyState(workloads);
             
-            generateAnalysisReport(report, analysis);
-            extractSystemMetrics(systemMetrics, analysis);
+            int totalWorkloads = listedFiles.size();
+            report.append("## Workload Summary\n\n");
+            report.append("Found ").append(totalWorkloads).append(" workload files:\n\n");
             
-        } catch (Exception e) {
-            report.append("*Analysis error: ").append(e.getMessage()).append("*\n");
-            e.printStackTrace();
+            for (String listedFile : listedFiles) {
+                report.append("- `").append(listedFile).append("`\n");
+            }
+            
+            // Perform Stage 2 analysis
+            report.append("\n## Performance Analysis\n\n");
+            
+            systemMetrics.setTotalWorkloads(totalWorkloads);
+            
+            try {
+                WorkloadAnalyzer.SystemAnalysis analysis = analyzer.analyzeWorkloads(workloads);
+                
+                generateAnalysisReport(report, analysis);
+                extractSystemMetrics(systemMetrics, analysis);
+                generateTimeSeriesReport(report, workloads);
+                generateSteadyStateReport(report, workloads);
+                
+            } catch (Exception e) {
+                report.append("*Analysis error: ").append(e.getMessage()).append("*\n");
+                e.printStackTrace();
+            }
+            
+            report.commit();
         }
-        
-        Files.write(systemReportPath, report.toString().getBytes());
+        metricsRegistry.put(systemMetrics);
         
         // Save system metrics to JSON file adjacent to report
         String metricsFilename = systemProfile + "__" + systemName + ".json";
@@ -644,6 +867,172 @@ public class ReportAnalyzer {
         } catch (Exception e) {
             System.err.println("Error saving system metrics to JSON: " + e.getMessage());
         }
+        return systemMetrics;
+    }
+    
+    /**
+     * Reads the fio time-series logs that lie next to the loose result files of a system and
+     * attaches them to their workloads, each workload taking the logs of its own directory.
+     * Not called in --from-store runs, which must not touch the result tree; the store holds
+     * no logs.
+     * @param workloadDirectories Directory of each loose workload
+     */
+    private void attachTimeSeries(Path systemDir, Map<WorkloadAnalyzer.WorkloadResult, Path> workloadDirectories) {
+        Map<Path, Map<String, WorkloadTimeSeries>> timeSeries;
+        try {
+            timeSeries = WorkloadTimeSeries.scan(new LinkedHashSet<>(workloadDirectories.values()));
+        } catch (IOException e) {
+            System.err.println("Error reading fio logs of " + systemDir + ": " + e.getMessage());
+            return;
+        }
+        for (Map.Entry<WorkloadAnalyzer.WorkloadResult, Path> workload : workloadDirectories.entrySet()) {
+            Map<String, WorkloadTimeSeries> directory = timeSeries.getOrDefault(workload.getValue(), Collections.emptyMap());
+            workload.getKey().setTimeSeries(directory.get(WorkloadTimeSeries.workloadName(workload.getKey().getFilename())));
+        }
+    }
+    
+    /**
+     * Flags every workload as steady or unsteady. Workloads that settled after a warm-up are
+     * replaced by their results over the steady window; the results store keeps the originals.
+     */
+    private List<WorkloadAnalyzer.WorkloadResult> detectSteadyState(List<WorkloadAnalyzer.WorkloadResult> workloads) {
+        List<WorkloadAnalyzer.WorkloadResult> result = new ArrayList<>(workloads.size());
+        for (WorkloadAnalyzer.WorkloadResult workload : workloads) {
+            SteadyState steadyState = SteadyState.detect(workload.getFioResult(), workload.getTimeSeries());
+            if (steadyState.getTrimmedResult() != null) {
+                WorkloadAnalyzer.WorkloadResult trimmed = new WorkloadAnalyzer.WorkloadResult(workload.getFilename(),
+                    workload.getSource(), workload.getWorkloadType(), workload.getTestId(), workload.getParameter(),
+                    steadyState.getTrimmedResult());
+                trimmed.setTimeSeries(workload.getTimeSeries());
+                workload = trimmed;
+            }
+            workload.setSteadyState(steadyState);
+            result.add(workload);
+        }
+        return result;
+    }
+    
+    /**
+     * Lists the steady-state status of every workload
+     */
+    private void generateSteadyStateReport(ReportWriter report, List<WorkloadAnalyzer.WorkloadResult> workloads) {
+        List<WorkloadAnalyzer.WorkloadResult> sorted = workloads.stream()
+            .filter(workload -> workload.getSteadyState() != null)
+            .sorted(Comparator.comparing(WorkloadAnalyzer.WorkloadResult::getFilename))
+            .collect(Collectors.toList());
+        if (sorted.isEmpty()) {
+            return;
+        }
+        long steady = sorted.stream().filter(workload -> workload.getSteadyState().getStatus() == SteadyState.Status.STEADY).count();
+        long trimmed = sorted.stream().filter(workload -> workload.getSteadyState().getTrimmedResult() != null).count();
+        
+        report.append("### Steady State\n\n");
+        report.append("**Steady Workloads**: ").append(steady).append(" of ").append(sorted.size()).append("\n");
+        report.append("**Criteria**: per-window log means within ")
+              .append(String.format("%.0f%%", SteadyState.MAX_EXCURSION * 100)).append(" of their average and trend drift within ")
+              .append(String.format("%.0f%%", SteadyState.MAX_DRIFT * 100))
+              .append(" over at least half the run; without logs, bw/iops sample CV within ")
+              .append(String.format("%.0f%%", SteadyState.MAX_EXCURSION * 100)).append("\n");
+        if (trimmed > 0) {
+            report.append("**Trimmed Workloads**: ").append(trimmed)
+                  .append(", analyzed over their steady window only, after the warm-up shown below\n");
+        }
+        report.append("\n");
+        report.append("| Workload File | Status | Basis | Warm-up | Detail |\n");
+        report.append("|---------------|--------|-------|---------|--------|\n");
+        for (WorkloadAnalyzer.WorkloadResult workload : sorted) {
+            SteadyState steadyState = workload.getSteadyState();
+            report.append("| `").append(workload.getFilename()).append("` | ")
+                  .append(steadyState.getStatus()).append(" | ")
+                  .append(steadyState.getBasis()).append(" | ")
+                  .append(steadyState.getWarmupMillis() > 0 ? String.format("%.1f s", steadyState.getWarmupMillis() / 1000.0) : "-").append(" | ")
+                  .append(steadyState.getDetail()).append(" |\n");
+        }
+        report.append("\n");
+    }
+    
+    /**
+     * Lists the downsampled fio logs of the workloads that have any, with a sparkline of the
+     * per-window means
+     */
+    private void generateTimeSeriesReport(ReportWriter report, List<WorkloadAnalyzer.WorkloadResult> workloads) {
+        List<WorkloadAnalyzer.WorkloadResult> logged = workloads.stream()
+            .filter(workload -> workload.getTimeSeries() != null)
+            .sorted(Comparator.comparing(WorkloadAnalyzer.WorkloadResult::getFilename))
+            .collect(Collectors.toList());
+        if (logged.isEmpty()) {
+            return;
+        }
+        
+        report.append("### Time Series\n\n");
+        report.append("**Source**: fio time-series logs next to the result files, downsampled to at most ")
+              .append(TimeSeries.DEFAULT_WINDOWS).append(" windows per log.\n\n");
+        report.append("| Workload File | Log | Samples | Window | Min | Mean Range | Max | Per-Window Mean |\n");
+        report.append("|---------------|-----|---------|--------|-----|------------|-----|-----------------|\n");
+        for (WorkloadAnalyzer.WorkloadResult workload : logged) {
+            WorkloadTimeSeries timeSeries = workload.getTimeSeries();
+            for (WorkloadTimeSeries.Log log : timeSeries.getLogs()) {
+                TimeSeries series = timeSeries.get(log);
+                List<Double> means = series.getMeans();
+                double lowestMean = means.stream().filter(mean -> mean > 0).mapToDouble(Double::doubleValue).min().orElse(0.0);
+                double highestMean = means.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+                report.append("| `").append(workload.getFilename()).append("` | ")
+                      .append(log.getSuffix()).append(" (").append(log.getUnit()).append(") | ")
+                      .append(series.getTotalCount()).append(" | ")
+                      .append(series.getWindowMillis()).append(" ms | ")
+                      .append(String.format("%.0f", series.getMin())).append(" | ")
+                      .append(String.format("%.0f - %.0f", lowestMean, highestMean)).append(" | ")
+                      .append(String.format("%.0f", series.getMax())).append(" | ")
+                      .append(SparklineGenerator.generateSparkline(means)).append(" |\n");
+            }
+        }
+        report.append("\n");
+    }
+    
+    /**
+     * Reads the workloads of a system directory, both loose files and entries of logs.tar.gz archives
+     * @param listedFiles Receives the workload files as listed in the system report, including
+     *                    loose files that cannot be parsed
+     * @param workloadDirectories Receives the directory of each parsed loose file, where its fio logs lie
+     * @return Parsed workloads, loose files first
+     */
+    private List<WorkloadAnalyzer.WorkloadResult> readSystemWorkloads(WorkloadAnalyzer analyzer, Path systemDir,
+                                                                      List<String> listedFiles,
+                                                                      Map<WorkloadAnalyzer.WorkloadResult, Path> workloadDirectories) throws IOException {
+        List<Path> workloadFiles = new ArrayList<>();
+        List<Path> archives = new ArrayList<>();
+        for (Path file : findWorkloadFiles(systemDir)) {
+            if (file.getFileName().toString().equals(ResultDirectoryIndex.LOGS_ARCHIVE)) {
+                archives.add(file);
+            } else {
+                workloadFiles.add(file);
+                listedFiles.add(systemDir.relativize(file).toString());
+            }
+        }
+        
+        // Archive entries are streamed once; loose files take precedence over entries of the same name
+        Set<String> knownNames = workloadFiles.stream()
+            .map(file -> file.getFileName().toString())
+            .collect(Collectors.toCollection(HashSet::new));
+        List<WorkloadAnalyzer.WorkloadResult> archivedResults = new ArrayList<>();
+        for (Path archive : archives) {
+            String archivePath = systemDir.relativize(archive).toString();
+            for (WorkloadAnalyzer.WorkloadResult result : analyzer.readArchive(archive, knownNames)) {
+                archivedResults.add(result);
+                listedFiles.add(archivePath + "!/" + result.getSource());
+                knownNames.add(result.getFilename());
+            }
+        }
+        
+        List<WorkloadAnalyzer.WorkloadResult> workloads = new ArrayList<>();
+        for (Path workloadFile : workloadFiles) {
+            for (WorkloadAnalyzer.WorkloadResult result : analyzer.readWorkloadFiles(Collections.singletonList(workloadFile))) {
+                workloads.add(result);
+                workloadDirectories.put(result, workloadFile.getParent());
+            }
+        }
+        workloads.addAll(archivedResults);
+        return workloads;
     }
     
     /**
@@ -747,12 +1136,26 @@ public class ReportAnalyzer {
                 tryFallbackMetricExtraction(fioResult, metrics, optimalMixed.getFilename());
             }
             
+            extractAggregateMetrics(WorkloadAggregate.of(fioResult), metrics);
+            
         } catch (Exception e) {
             System.err.println("Error extracting metrics from mixed workload " + 
                              (optimalMixed != null ? optimalMixed.getFilename() : "unknown") + ": " + e.getMessage());
         }
     }
     
+    /**
+     * Stores the device-level throughput and latency of all jobs of the optimal mixed workload
+     */
+    private void extractAggregateMetrics(WorkloadAggregate aggregate, SystemMetrics metrics) {
+        metrics.setAggregateThroughputMBps(aggregate.getBandwidth() / 1024.0);
+        metrics.setAggregateIOPS(aggregate.getIops());
+        metrics.setAggregateLatencyMeanMs(aggregate.getLatencyMean() / 1000000.0);
+        metrics.setAggregateLatencyP50Ms(aggregate.getLatencyAtPercentile(50.0) / 1000000.0);
+        metrics.setAggregateLatencyP95Ms(aggregate.getLatencyAtPercentile(95.0) / 1000000.0);
+        metrics.setAggregateLatencyP99Ms(aggregate.getLatencyAtPercentile(99.0) / 1000000.0);
+    }
+    
     private void extractRandreadMetrics(FioResult.FioJob job, SystemMetrics metrics, String filename) {
         try {
             FioResult.FioMetrics readMetrics = job.getRead();
@@ -913,7 +1316,7 @@ public class ReportAnalyzer {
     /**
      * Generates detailed analysis report from system analysis results
      */
-    private void generateAnalysisReport(StringBuilder report, WorkloadAnalyzer.SystemAnalysis analysis) {
+    private void generateAnalysisReport(ReportWriter report, WorkloadAnalyzer.SystemAnalysis analysis) {
         // Step 1: Optimal Blocksize - Enhanced with all data, descriptions, calculations, and results
         List<WorkloadAnalyzer.WorkloadResult> allRandread = analysis.getAllRandreadResults();
         WorkloadAnalyzer.WorkloadResult optimalRandread = analysis.getOptimalRandread();
@@ -1081,7 +1484,7 @@ public class ReportAnalyzer {
     /**
      * Generates metrics for a mixed workload
      */
-    private void generateMixedWorkloadMetrics(StringBuilder report, WorkloadAnalyzer.WorkloadResult mixed) {
+    private void generateMixedWorkloadMetrics(ReportWriter report, WorkloadAnalyzer.WorkloadResult mixed) {
         try {
             List<FioResult.FioJob> jobs = mixed.getFioResult().getJobs();
             
@@ -1164,6 +1567,16 @@ public class ReportAnalyzer {
                     report.append("- Total Write Throughput: ").append(String.format("%.1f KB/s (%.2f MB/s)", totalWriteBandwidth, totalWriteBandwidth / 1024.0)).append("\n");
                     report.append("- Total Write IOPS: ").append(String.format("%.1f", totalWriteIOPS)).append("\n");
                 }
+                WorkloadAggregate aggregate = WorkloadAggregate.of(mixed.getFioResult());
+                if (aggregate.getLatencyMean() > 0) {
+                    report.append("- Combined Latency (all jobs, weighted by I/O count): ")
+                          .append(String.format("mean %.1f ms, P50 %.1f ms, P95 %.1f ms, P99 %.1f ms",
+                              aggregate.getLatencyMean() / 1000000.0,
+                              aggregate.getLatencyAtPercentile(50.0) / 1000000.0,
+                              aggregate.getLatencyAtPercentile(95.0) / 1000000.0,
+                              aggregate.getLatencyAtPercentile(99.0) / 1000000.0))
+                          .append(aggregate.isExact() ? "" : " (P-values interpolated from per-job percentiles)").append("\n");
+                }
                 report.append("\n");
             }
             
@@ -1176,7 +1589,7 @@ public class ReportAnalyzer {
      * Generates enhanced Unicode sparklines with logarithmic scale and quantile panels
      * Requirements: Lines 71-73 - logarithmic scale, quantile panels, grid pattern layout
      */
-    private void generateLatencySparklines(StringBuilder report, List<WorkloadAnalyzer.WorkloadResult> mixedSeries) {
+    private void generateLatencySparklines(ReportWriter report, List<WorkloadAnalyzer.WorkloadResult> mixedSeries) {
         if (mixedSeries.size() < 2) {
             report.append("*Insufficient data for sparkline generation.*\n\n");
             return;
@@ -1321,47 +1734,49 @@ public class ReportAnalyzer {
     /**
      * Creates a system performance profile report summarizing all systems in a profile
      */
-    private void createSystemPerformanceProfile(Path reportPath, String systemProfileName, AnalysisManifest manifest) throws IOException {
+    void createSystemPerformanceProfile(Path reportPath, String systemProfileName, AnalysisManifest manifest) throws IOException {
         String profileReportFilename = "PROFILE_" + systemProfileName + ".md";
         Path profileReportPath = reportPath.resolve(profileReportFilename);
         
-        StringBuilder report = new StringBuilder();
-        report.append("# System Performance Profile: ").append(systemProfileName).append("\n\n");
-        report.append("**Generated**: ").append(java.time.LocalDateTime.now()).append("\n\n");
-        
-        Map<String, Path> systems = manifest.getSystemsForProfile(systemProfileName);
-        report.append("## Profile Summary\n\n");
-        report.append("**System Profile**: ").append(systemProfileName).append("\n");
-        report.append("**Total Systems**: ").append(systems.size()).append("\n");
-        report.append("**System Profile Path**: `").append(manifest.getSystemProfile(systemProfileName).getSystemProfilePath()).append("`\n\n");
-        
-        // Collect performance data from individual system reports
-        Map<String, SystemPerformanceData> systemPerformanceData = new HashMap<>();
-        
-        for (Map.Entry<String, Path> entry : systems.entrySet()) {
-            String systemName = entry.getKey();
-            try {
-                SystemPerformanceData perfData = extractPerformanceDataFromSystemReport(reportPath, systemProfileName, systemName);
-                systemPerformanceData.put(systemName, perfData);
-            } catch (Exception e) {
-                System.err.println("Error extracting performance data for " + systemName + ": " + e.getMessage());
+        SystemProfileMetrics profileMetrics;
+        try (ReportWriter report = ReportWriter.create(profileReportPath)) {
+            report.append("# System Performance Profile: ").append(systemProfileName).append("\n\n");
+            report.append("**Generated**: ").append(java.time.LocalDateTime.now()).append("\n\n");
+            
+            Map<String, Path> systems = manifest.getSystemsForProfile(systemProfileName);
+            report.append("## Profile Summary\n\n");
+            report.append("**System Profile**: ").append(systemProfileName).append("\n");
+            report.append("**Total Systems**: ").append(systems.size()).append("\n");
+            report.append("**System Profile Path**: `").append(manifest.getSystemProfile(systemProfileName).getSystemProfilePath()).append("`\n\n");
+            
+            // Collect performance data from individual system reports
+            Map<String, SystemPerformanceData> systemPerformanceData = new HashMap<>();
+            
+            for (Map.Entry<String, Path> entry : systems.entrySet()) {
+                String systemName = entry.getKey();
+                try {
+                    SystemPerformanceData perfData = extractPerformanceDataFromSystemReport(reportPath, systemProfileName, systemName);
+                    systemPerformanceData.put(systemName, perfData);
+                } catch (Exception e) {
+                    System.err.println("Error extracting performance data for " + systemName + ": " + e.getMessage());
+                }
             }
+            
+            // Create and populate profile metrics
+            profileMetrics = createProfileMetrics(systemProfileName, systemPerformanceData);
+            
+            // Generate summary statistics
+            generateProfileSummaryStatistics(report, systemPerformanceData);
+            
+            // Generate comparative analysis within profile
+            generateWithinProfileComparison(report, systemPerformanceData);
+            
+            // Generate ranking function analysis for systems within this profile
+            generateProfileRankingAnalysis(report, reportPath, systemProfileName, manifest);
+            
+            report.commit();
         }
         
-        // Create and populate profile metrics
-        SystemProfileMetrics profileMetrics = createProfileMetrics(systemProfileName, systemPerformanceData);
-        
-        // Generate summary statistics
-        generateProfileSummaryStatistics(report, systemPerformanceData);
-        
-        // Generate comparative analysis within profile
-        generateWithinProfileComparison(report, systemPerformanceData);
-        
-        // Generate ranking function analysis for systems within this profile
-        generateProfileRankingAnalysis(report, reportPath, systemProfileName, manifest);
-        
-        Files.write(profileReportPath, report.toString().getBytes());
-        
         // Save profile metrics to JSON file adjacent to report
         String metricsFilename = "PROFILE_" + systemProfileName + ".json";
         Path metricsPath = reportPath.resolve(metricsFilename);
@@ -1492,7 +1907,7 @@ public class ReportAnalyzer {
      * Stage 4: Cross Profile Comparisons
      * Requirement lines 81-86: Comparative study with KPIs and rankings
      */
-    private void executeStage4Analysis(Path reportPath, AnalysisManifest manifest) throws IOException {
+    void executeStage4Analysis(Path reportPath, AnalysisManifest manifest) throws IOException {
         System.out.println("Executing Stage 4: Cross Profile Comparisons...");
         createCrossProfileComparison(reportPath, manifest);
     }
@@ -1504,56 +1919,59 @@ public class ReportAnalyzer {
         String comparisonReportFilename = "CROSS_PROFILE_COMPARISON.md";
         Path comparisonReportPath = reportPath.resolve(comparisonReportFilename);
         
-        StringBuilder report = new StringBuilder();
-        report.append("# Cross-System Profile Comparison\n\n");
-        report.append("**Generated**: ").append(java.time.LocalDateTime.now()).append("\n\n");
-        
-        // Collect performance data from all profiles
-        Map<String, Map<String, SystemPerformanceData>> allProfileData = new HashMap<>();
-        
-        for (String systemProfileName : manifest.getSystemProfiles()) {
-            Map<String, Path> systems = manifest.getSystemsForProfile(systemProfileName);
-            Map<String, SystemPerformanceData> profileData = new HashMap<>();
+        try (ReportWriter report = ReportWriter.create(comparisonReportPath)) {
+            report.append("# Cross-System Profile Comparison\n\n");
+            report.append("**Generated**: ").append(java.time.LocalDateTime.now()).append("\n\n");
             
-            for (Map.Entry<String, Path> entry : systems.entrySet()) {
-                String systemName = entry.getKey();
-                try {
-                    SystemPerformanceData perfData = extractPerformanceDataFromSystemReport(reportPath, systemProfileName, systemName);
-                    profileData.put(systemName, perfData);
-                } catch (Exception e) {
-                    System.err.println("Error extracting performance data for " + systemName + ": " + e.getMessage());
+            // Collect performance data from all profiles
+            Map<String, Map<String, SystemPerformanceData>> allProfileData = new HashMap<>();
+            
+            for (String systemProfileName : manifest.getSystemProfiles()) {
+                Map<String, Path> systems = manifest.getSystemsForProfile(systemProfileName);
+                Map<String, SystemPerformanceData> profileData = new HashMap<>();
+                
+                for (Map.Entry<String, Path> entry : systems.entrySet()) {
+                    String systemName = entry.getKey();
+                    try {
+                        SystemPerformanceData perfData = extractPerformanceDataFromSystemReport(reportPath, systemProfileName, systemName);
+                        profileData.put(systemName, perfData);
+                    } catch (Exception e) {
+                        System.err.println("Error extracting performance data for " + systemName + ": " + e.getMessage());
+                    }
                 }
+                allProfileData.put(systemProfileName, profileData);
             }
-            allProfileData.put(systemProfileName, profileData);
+            
+            // Generate key performance indicators
+            generateCrossProfileKPIs(report, allProfileData);
+            
+            // Generate cross-system analysis for each non-example ranking function
+            generateMultipleRankingFunctionAnalyses(report, reportPath, manifest);
+            
+            // Generate traditional rankings (for comparison)
+            generateSystemRankings(report, allProfileData);
+            
+            report.commit();
         }
-        
-        // Generate key performance indicators
-        generateCrossProfileKPIs(report, allProfileData);
-        
-        // Generate cross-system analysis for each non-example ranking function
-        generateMultipleRankingFunctionAnalyses(report, reportPath, manifest);
-        
-        // Generate traditional rankings (for comparison)
-        generateSystemRankings(report, allProfileData);
-        
-        Files.write(comparisonReportPath, report.toString().getBytes());
     }
     
     /**
-     * Extracts performance data from SystemMetrics JSON file
+     * Returns the registry through which Stage 2 hands SystemMetrics to the later stages
+     */
+    SystemMetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+    
+    /**
+     * Extracts performance data from the SystemMetrics registered by Stage 2
      * All metrics come from optimal mixed workload components
      */
     private SystemPerformanceData extractPerformanceDataFromSystemReport(Path reportPath, String systemProfile, String systemName) throws IOException {
-        String jsonFilename = systemProfile + "__" + systemName + ".json";
-        Path systemMetricsPath = reportPath.resolve(jsonFilename);
-        
-        if (!Files.exists(systemMetricsPath)) {
-            throw new IOException("System metrics JSON not found: " + jsonFilename);
+        SystemMetrics metrics = metricsRegistry.get(reportPath, systemProfile, systemName);
+        if (metrics == null) {
+            throw new IOException("System metrics JSON not found: " + systemProfile + "__" + systemName + ".json");
         }
         
-        // Load SystemMetrics directly from JSON
-        SystemMetrics metrics = objectMapper.readValue(systemMetricsPath.toFile(), SystemMetrics.class);
-        
         // Create SystemPerformanceData from the mixed workload component metrics
         return new SystemPerformanceData(systemName, systemProfile, metrics);
     }
@@ -1562,7 +1980,7 @@ public class ReportAnalyzer {
     /**
      * Generates summary statistics for a system profile
      */
-    private void generateProfileSummaryStatistics(StringBuilder report, Map<String, SystemPerformanceData> systemData) {
+    private void generateProfileSummaryStatistics(ReportWriter report, Map<String, SystemPerformanceData> systemData) {
         if (systemData.isEmpty()) {
             report.append("*No performance data available.*\n\n");
             return;
@@ -1599,7 +2017,7 @@ public class ReportAnalyzer {
     /**
      * Generates within-profile comparison
      */
-    private void generateWithinProfileComparison(StringBuilder report, Map<String, SystemPerformanceData> systemData) {
+    private void generateWithinProfileComparison(ReportWriter report, Map<String, SystemPerformanceData> systemData) {
         if (systemData.isEmpty()) return;
         
         report.append("## System Comparison Within Profile\n\n");
@@ -1629,7 +2047,7 @@ public class ReportAnalyzer {
     /**
      * Generates cross-profile KPIs
      */
-    private void generateCrossProfileKPIs(StringBuilder report, Map<String, Map<String, SystemPerformanceData>> allProfileData) {
+    private void generateCrossProfileKPIs(ReportWriter report, Map<String, Map<String, SystemPerformanceData>> allProfileData) {
         report.append("## Key Performance Indicators by Profile\n\n");
         
         report.append("| Profile | Systems | Avg Throughput | Max Throughput | Avg Latency | Best System |\n");
@@ -1663,7 +2081,7 @@ public class ReportAnalyzer {
     /**
      * Generates cross-system analysis for each non-example ranking function
      */
-    private void generateMultipleRankingFunctionAnalyses(StringBuilder report, Path reportPath, AnalysisManifest manifest) {
+    private void generateMultipleRankingFunctionAnalyses(ReportWriter report, Path reportPath, AnalysisManifest manifest) throws IOException {
         Set<String> functionsToUse;
         boolean usingAllFunctions = false;
         
@@ -1697,51 +2115,132 @@ public class ReportAnalyzer {
             report.append("---\n\n");
         }
         
+        // Load the metrics once and score every ranking function over the same table
+        List<SystemMetrics> allSystemMetrics = collectAllSystemMetrics(reportPath, manifest);
+        MetricTable metricTable = MetricTable.of(allSystemMetrics);
+        BatchScorer scorer = new BatchScorer(metricTable);
+        Map<String, ScoringFunction> scoringFunctions = createScoringFunctions(functionsToUse);
+        
         // Generate a complete cross-system analysis for each ranking function
-        for (String functionName : functionsToUse) {
-            generateSingleRankingFunctionAnalysis(report, reportPath, manifest, functionName);
-        }
+        renderRankingSections(report, functionsToUse, (section, functionName) -> {
+            if (allSystemMetrics.isEmpty()) {
+                section.append("*No system metrics available for cross-system comparison.*\n\n");
+                return;
+            }
+            BatchScorer.Ranking ranking = rank("", scorer, functionName, scoringFunctions.get(functionName));
+            generateCrossSystemViewForRankingFunction(section, allSystemMetrics, metricTable, functionName, ranking);
+        });
     }
     
     /**
-     * Generates cross-system analysis for a single ranking function
+     * Collects the metrics of all systems in the manifest from the registry
      */
-    private void generateSingleRankingFunctionAnalysis(StringBuilder report, Path reportPath, AnalysisManifest manifest, String functionName) {
-        // Load all system metrics from JSON files
+    private List<SystemMetrics> collectAllSystemMetrics(Path reportPath, AnalysisManifest manifest) {
         List<SystemMetrics> allSystemMetrics = new ArrayList<>();
         for (String systemProfileName : manifest.getSystemProfiles()) {
             Map<String, Path> systems = manifest.getSystemsForProfile(systemProfileName);
             
             for (String systemName : systems.keySet()) {
-                String metricsFilename = systemProfileName + "__" + systemName + ".json";
-                Path metricsPath = reportPath.resolve(metricsFilename);
-                
                 try {
-                    if (Files.exists(metricsPath)) {
-                        SystemMetrics metrics = objectMapper.readValue(metricsPath.toFile(), SystemMetrics.class);
+                    SystemMetrics metrics = metricsRegistry.get(reportPath, systemProfileName, systemName);
+                    if (metrics != null) {
                         allSystemMetrics.add(metrics);
                     }
                 } catch (Exception e) {
-                    System.err.println("Error loading system metrics from " + metricsFilename + ": " + e.getMessage());
+                    System.err.println("Error loading system metrics from " + systemProfileName + "__" + systemName + ".json: " + e.getMessage());
                 }
             }
         }
-        
-        if (allSystemMetrics.isEmpty()) {
-            report.append("*No system metrics available for cross-system comparison.*\n\n");
+        return allSystemMetrics;
+    }
+    
+    /**
+     * Loads each named ranking function, in the given order
+     */
+    private Map<String, ScoringFunction> createScoringFunctions(Set<String> functionNames) {
+        Map<String, ScoringFunction> scoringFunctions = new LinkedHashMap<>();
+        for (String functionName : functionNames) {
+            scoringFunctions.put(functionName, ScoringFunction.createFromRankingFunctions(functionName));
+        }
+        return scoringFunctions;
+    }
+    
+    /**
+     * Ranks the systems of the scorer's table under one function, through the incremental index
+     * of the scope (a profile name, or "" for all systems) when incremental ranking is enabled
+     */
+    private BatchScorer.Ranking rank(String scope, BatchScorer scorer, String functionName, ScoringFunction scoringFunction) {
+        if (rankingIndexes == null) {
+            return scorer.rank(scoringFunction, topSystems);
+        }
+        // A reloaded ranking-functions.json compiles new functions, which start a new index
+        IncrementalRankingIndex index = rankingIndexes.compute(scope + "/" + functionName,
+            (key, existing) -> existing != null && existing.getScoringFunction() == scoringFunction
+                ? existing : new IncrementalRankingIndex(scoringFunction));
+        return index.rank(scorer.getTable(), topSystems);
+    }
+    
+    /**
+     * Renders one report section per ranking function on up to analysisThreads threads.
+     * Each section is rendered into its own buffer with its console output captured, and the
+     * sections and their output are appended in the order of the function names. At most one
+     * section per thread is in flight: the next section is submitted once the oldest has been
+     * appended and its buffer released, so report memory stays bounded by the thread count.
+     */
+    private void renderRankingSections(ReportWriter report, Set<String> functionNames,
+                                       BiConsumer<ReportWriter, String> renderer) throws IOException {
+        int threads = Math.max(1, Math.min(analysisThreads, functionNames.size()));
+        if (threads == 1) {
+            for (String functionName : functionNames) {
+                renderer.accept(report, functionName);
+            }
             return;
         }
         
-        // Generate cross-system view for this specific ranking function
-        generateCrossSystemViewForRankingFunction(report, allSystemMetrics, functionName);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        SystemLog.install();
+        try {
+            Iterator<String> pending = functionNames.iterator();
+            Deque<Future<SystemLog.Captured<ReportWriter>>> inFlight = new ArrayDeque<>();
+            while (inFlight.size() < threads && pending.hasNext()) {
+                inFlight.add(submitSection(executor, renderer, pending.next()));
+            }
+            while (!inFlight.isEmpty()) {
+                report.append(inFlight.removeFirst().get().replay());
+                if (pending.hasNext()) {
+                    inFlight.add(submitSection(executor, renderer, pending.next()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering ranking sections", e);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            SystemLog.uninstall();
+        }
+    }
+    
+    private static Future<SystemLog.Captured<ReportWriter>> submitSection(ExecutorService executor,
+                                                                           BiConsumer<ReportWriter, String> renderer,
+                                                                           String functionName) {
+        return executor.submit(() -> SystemLog.capture(() -> {
+            ReportWriter section = ReportWriter.buffer();
+            renderer.accept(section, functionName);
+            return section;
+        }));
     }
     
     /**
      * Generates a complete cross-system view for a specific ranking function
      */
-    private void generateCrossSystemViewForRankingFunction(StringBuilder report, List<SystemMetrics> allSystemMetrics, String functionName) {
-        ScoringFunction scoringFunction = ScoringFunction.createFromRankingFunctions(functionName);
-        List<ScoringFunction.ScoringResult> scoringResults = scoringFunction.scoreAndRankSystems(allSystemMetrics);
+    private void generateCrossSystemViewForRankingFunction(ReportWriter report, List<SystemMetrics> allSystemMetrics, MetricTable metricTable,
+                                                          String functionName, BatchScorer.Ranking ranking) {
+        ScoringFunction scoringFunction = ranking.getScoringFunction();
+        List<ScoringFunction.ScoringResult> scoringResults = ranking.getResults();
         
         // Create section header with proper formatting
         String sectionTitle = formatRankingFunctionName(functionName) + " Cross-System Analysis";
@@ -1756,6 +2255,9 @@ public class ReportAnalyzer {
         for (ScoringFunction.ScoringComponent component : scoringFunction.getConfiguration().getComponents()) {
             report.append("- **").append(component.getMetricName()).append("** (weight: ").append(String.format("%.1f", component.getWeight()));
             report.append(", mapping: ").append(component.getMappingFunction());
+            if (!"none".equalsIgnoreCase(component.getNormalization())) {
+                report.append(", normalization: ").append(component.getNormalization());
+            }
             if (component.isInvertBetter()) {
                 report.append(", lower is better");
             }
@@ -1786,7 +2288,7 @@ public class ReportAnalyzer {
                 .findFirst()
                 .orElse(null);
             
-            boolean isDisqualified = result.getTotalScore() == 0.0;
+            boolean isDisqualified = result.isDisqualified();
             
             report.append("| ").append(rank++).append(" | ");
             
@@ -1824,6 +2326,7 @@ public class ReportAnalyzer {
             report.append(details.toString()).append(" |\n");
         }
         report.append("\n");
+        appendTopSystemsNote(report, scoringResults.size(), metricTable.size());
         
         // Add top performers analysis
         report.append("### Top Performers Analysis\n\n");
@@ -1856,11 +2359,16 @@ public class ReportAnalyzer {
         // Add disqualified systems explanations if any exist
         generateDisqualifiedSystemsExplanations(report, allSystemMetrics, scoringResults);
         
+        // Profile summaries cover every system, also when only the top systems are listed
+        List<ProfileRanking> profileSummaries = topSystems > 0
+            ? summarizeProfiles(metricTable, ranking.getTotalScores())
+            : summarizeProfiles(allSystemMetrics, scoringResults);
+        
         // Add profile-level insights for this ranking
-        generateProfileInsightsForRanking(report, allSystemMetrics, scoringResults, functionName);
+        generateProfileInsightsForRanking(report, profileSummaries, functionName);
         
         // Add profile average rankings
-        generateProfileAverageRankings(report, allSystemMetrics, scoringResults, functionName);
+        generateProfileAverageRankings(report, profileSummaries);
         
         report.append("---\n\n");
     }
@@ -1868,11 +2376,11 @@ public class ReportAnalyzer {
     /**
      * Generates detailed explanations for disqualified systems
      */
-    private void generateDisqualifiedSystemsExplanations(StringBuilder report, List<SystemMetrics> allSystemMetrics,
+    private void generateDisqualifiedSystemsExplanations(ReportWriter report, List<SystemMetrics> allSystemMetrics,
                                                         List<ScoringFunction.ScoringResult> scoringResults) {
         // Find disqualified systems
         List<ScoringFunction.ScoringResult> disqualifiedSystems = scoringResults.stream()
-            .filter(result -> result.getTotalScore() == 0.0)
+            .filter(ScoringFunction.ScoringResult::isDisqualified)
             .collect(java.util.stream.Collectors.toList());
             
         if (disqualifiedSystems.isEmpty()) {
@@ -1913,59 +2421,21 @@ public class ReportAnalyzer {
     }
     
     /**
-     * Generates profile-level insights for a specific ranking function
+     * Notes that a rankings table was cut off by --top
      */
-    private void generateProfileInsightsForRanking(StringBuilder report, List<SystemMetrics> allSystemMetrics, 
-                                                 List<ScoringFunction.ScoringResult> scoringResults, String functionName) {
-        report.append("### Profile Performance in ").append(formatRankingFunctionName(functionName)).append(" Context\n\n");
-        
-        // Group results by profile
-        Map<String, List<ScoringFunction.ScoringResult>> profileResults = new HashMap<>();
-        for (ScoringFunction.ScoringResult result : scoringResults) {
-            String profile = allSystemMetrics.stream()
-                .filter(m -> m.getSystemName().equals(result.getSystemName()))
-                .map(SystemMetrics::getSystemProfile)
-                .findFirst()
-                .orElse("unknown");
-            profileResults.computeIfAbsent(profile, k -> new ArrayList<>()).add(result);
+    private void appendTopSystemsNote(ReportWriter report, int listedSystems, int totalSystems) {
+        if (listedSystems < totalSystems) {
+            report.append("*Showing the top ").append(listedSystems).append(" of ").append(totalSystems)
+                  .append(" systems (`--top ").append(topSystems).append("`).*\n\n");
         }
-        
-        // Analyze each profile
-        report.append("| Profile | Systems | Best Score | Avg Score | Top System | Analysis |\n");
-        report.append("|---------|---------|------------|-----------|------------|----------|\n");
-        
-        for (Map.Entry<String, List<ScoringFunction.ScoringResult>> entry : profileResults.entrySet()) {
-            String profile = entry.getKey();
-            List<ScoringFunction.ScoringResult> results = entry.getValue();
-            
-            double bestScore = results.stream().mapToDouble(ScoringFunction.ScoringResult::getTotalScore).max().orElse(0.0);
-            double avgScore = results.stream().mapToDouble(ScoringFunction.ScoringResult::getTotalScore).average().orElse(0.0);
-            String topSystem = results.stream()
-                .max((a, b) -> Double.compare(a.getTotalScore(), b.getTotalScore()))
-                .map(ScoringFunction.ScoringResult::getSystemName)
-                .orElse("N/A");
-            
-            String analysis = generateProfileAnalysis(functionName, bestScore, avgScore, results.size());
-            
-            report.append("| **").append(profile).append("** | ");
-            report.append(results.size()).append(" | ");
-            report.append(String.format("%.3f", bestScore)).append(" | ");
-            report.append(String.format("%.3f", avgScore)).append(" | ");
-            report.append("`").append(topSystem).append("` | ");
-            report.append(analysis).append(" |\n");
-        }
-        report.append("\n");
     }
     
     /**
-     * Generates profile average rankings - ranks profiles by their average scores
+     * Summarizes the scores of the systems of each profile from a full ranking
      */
-    private void generateProfileAverageRankings(StringBuilder report, List<SystemMetrics> allSystemMetrics, 
-                                               List<ScoringFunction.ScoringResult> scoringResults, String functionName) {
-        report.append("### System Profile Rankings by Average Score\n\n");
-        report.append("*Profiles ranked by the average score of their constituent systems.*\n\n");
-        
-        // Group results by profile and calculate averages
+    private List<ProfileRanking> summarizeProfiles(List<SystemMetrics> allSystemMetrics,
+                                                   List<ScoringFunction.ScoringResult> scoringResults) {
+        // Group results by profile
         Map<String, List<ScoringFunction.ScoringResult>> profileResults = new HashMap<>();
         for (ScoringFunction.ScoringResult result : scoringResults) {
             String profile = allSystemMetrics.stream()
@@ -1976,7 +2446,6 @@ public class ReportAnalyzer {
             profileResults.computeIfAbsent(profile, k -> new ArrayList<>()).add(result);
         }
         
-        // Calculate profile averages and create ranking entries
         List<ProfileRanking> profileRankings = new ArrayList<>();
         for (Map.Entry<String, List<ScoringFunction.ScoringResult>> entry : profileResults.entrySet()) {
             String profile = entry.getKey();
@@ -1997,8 +2466,69 @@ public class ReportAnalyzer {
             
             profileRankings.add(new ProfileRanking(profile, avgScore, bestScore, bestSystem, results.size()));
         }
+        return profileRankings;
+    }
+    
+    /**
+     * Summarizes the scores of the systems of each profile in one pass over the total scores of
+     * a metric table, without ranking the systems
+     */
+    private List<ProfileRanking> summarizeProfiles(MetricTable metricTable, double[] totalScores) {
+        Map<String, Integer> profileCounts = new HashMap<>();
+        Map<String, Double> profileSums = new HashMap<>();
+        Map<String, Integer> profileBestRows = new HashMap<>();
+        for (int row = 0; row < metricTable.size(); row++) {
+            String profile = metricTable.getSystem(row).getSystemProfile();
+            profileCounts.merge(profile, 1, Integer::sum);
+            profileSums.merge(profile, totalScores[row], Double::sum);
+            Integer bestRow = profileBestRows.get(profile);
+            if (bestRow == null || totalScores[row] > totalScores[bestRow]) {
+                profileBestRows.put(profile, row);
+            }
+        }
+        
+        List<ProfileRanking> profileRankings = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : profileCounts.entrySet()) {
+            String profile = entry.getKey();
+            int bestRow = profileBestRows.get(profile);
+            profileRankings.add(new ProfileRanking(profile, profileSums.get(profile) / entry.getValue(),
+                totalScores[bestRow], metricTable.getSystemName(bestRow), entry.getValue()));
+        }
+        return profileRankings;
+    }
+    
+    /**
+     * Generates profile-level insights for a specific ranking function
+     */
+    private void generateProfileInsightsForRanking(ReportWriter report, List<ProfileRanking> profileSummaries, String functionName) {
+        report.append("### Profile Performance in ").append(formatRankingFunctionName(functionName)).append(" Context\n\n");
+        
+        // Analyze each profile
+        report.append("| Profile | Systems | Best Score | Avg Score | Top System | Analysis |\n");
+        report.append("|---------|---------|------------|-----------|------------|----------|\n");
+        
+        for (ProfileRanking pr : profileSummaries) {
+            String analysis = generateProfileAnalysis(functionName, pr.bestScore, pr.avgScore, pr.systemCount);
+            
+            report.append("| **").append(pr.profileName).append("** | ");
+            report.append(pr.systemCount).append(" | ");
+            report.append(String.format("%.3f", pr.bestScore)).append(" | ");
+            report.append(String.format("%.3f", pr.avgScore)).append(" | ");
+            report.append("`").append(pr.bestSystem).append("` | ");
+            report.append(analysis).append(" |\n");
+        }
+        report.append("\n");
+    }
+    
+    /**
+     * Generates profile average rankings - ranks profiles by their average scores
+     */
+    private void generateProfileAverageRankings(ReportWriter report, List<ProfileRanking> profileSummaries) {
+        report.append("### System Profile Rankings by Average Score\n\n");
+        report.append("*Profiles ranked by the average score of their constituent systems.*\n\n");
         
         // Sort profiles by average score (descending)
+        List<ProfileRanking> profileRankings = new ArrayList<>(profileSummaries);
         profileRankings.sort((a, b) -> Double.compare(b.avgScore, a.avgScore));
         
         // Generate ranking table
@@ -2078,22 +2608,19 @@ public class ReportAnalyzer {
     /**
      * Generates separate ranking function sections for systems within a profile
      */
-    private void generateProfileRankingAnalysis(StringBuilder report, Path reportPath, String systemProfileName, AnalysisManifest manifest) {
-        // Load system metrics for this profile only
+    private void generateProfileRankingAnalysis(ReportWriter report, Path reportPath, String systemProfileName, AnalysisManifest manifest) throws IOException {
+        // Collect system metrics for this profile only
         List<SystemMetrics> profileSystemMetrics = new ArrayList<>();
         Map<String, Path> systems = manifest.getSystemsForProfile(systemProfileName);
         
         for (String systemName : systems.keySet()) {
-            String metricsFilename = systemProfileName + "__" + systemName + ".json";
-            Path metricsPath = reportPath.resolve(metricsFilename);
-            
             try {
-                if (Files.exists(metricsPath)) {
-                    SystemMetrics metrics = objectMapper.readValue(metricsPath.toFile(), SystemMetrics.class);
+                SystemMetrics metrics = metricsRegistry.get(reportPath, systemProfileName, systemName);
+                if (metrics != null) {
                     profileSystemMetrics.add(metrics);
                 }
             } catch (Exception e) {
-                System.err.println("Error loading system metrics from " + metricsFilename + ": " + e.getMessage());
+                System.err.println("Error loading system metrics from " + systemProfileName + "__" + systemName + ".json: " + e.getMessage());
             }
         }
         
@@ -2126,18 +2653,23 @@ public class ReportAnalyzer {
             report.append("---\n\n");
         }
         
-        // Generate SEPARATE SECTION for each ranking function
-        for (String functionName : functionsToUse) {
-            generateSeparateProfileRankingSection(report, profileSystemMetrics, functionName);
-        }
+        // Generate SEPARATE SECTION for each ranking function, all scored in one batch
+        MetricTable metricTable = MetricTable.of(profileSystemMetrics);
+        BatchScorer scorer = new BatchScorer(metricTable);
+        Map<String, ScoringFunction> scoringFunctions = createScoringFunctions(functionsToUse);
+        renderRankingSections(report, functionsToUse, (section, functionName) -> {
+            BatchScorer.Ranking ranking = rank(systemProfileName, scorer, functionName, scoringFunctions.get(functionName));
+            generateSeparateProfileRankingSection(section, profileSystemMetrics, metricTable, functionName, ranking);
+        });
     }
     
     /**
      * Generates a complete separate section for a single ranking function within a profile
      */
-    private void generateSeparateProfileRankingSection(StringBuilder report, List<SystemMetrics> profileSystemMetrics, String functionName) {
-        ScoringFunction scoringFunction = ScoringFunction.createFromRankingFunctions(functionName);
-        List<ScoringFunction.ScoringResult> scoringResults = scoringFunction.scoreAndRankSystems(profileSystemMetrics);
+    private void generateSeparateProfileRankingSection(ReportWriter report, List<SystemMetrics> profileSystemMetrics, MetricTable metricTable,
+                                                       String functionName, BatchScorer.Ranking ranking) {
+        ScoringFunction scoringFunction = ranking.getScoringFunction();
+        List<ScoringFunction.ScoringResult> scoringResults = ranking.getResults();
         
         // Create a separate section header (H2 level)
         String sectionTitle = formatRankingFunctionName(functionName) + " Profile Analysis";
@@ -2152,6 +2684,9 @@ public class ReportAnalyzer {
         for (ScoringFunction.ScoringComponent component : scoringFunction.getConfiguration().getComponents()) {
             report.append("- **").append(component.getMetricName()).append("** (weight: ").append(String.format("%.1f", component.getWeight()));
             report.append(", mapping: ").append(component.getMappingFunction());
+            if (!"none".equalsIgnoreCase(component.getNormalization())) {
+                report.append(", normalization: ").append(component.getNormalization());
+            }
             if (component.isInvertBetter()) {
                 report.append(", lower is better");
             }
@@ -2175,7 +2710,7 @@ public class ReportAnalyzer {
                 .findFirst()
                 .orElse(null);
             
-            boolean isDisqualified = result.getTotalScore() == 0.0;
+            boolean isDisqualified = result.isDisqualified();
             
             report.append("| ").append(rank++).append(" | ");
             
@@ -2212,6 +2747,7 @@ public class ReportAnalyzer {
             report.append(details.toString()).append(" |\n");
         }
         report.append("\n");
+        appendTopSystemsNote(report, scoringResults.size(), metricTable.size());
         
         // Add top performers analysis
         if (scoringResults.size() > 1) {
@@ -2245,7 +2781,7 @@ public class ReportAnalyzer {
     /**
      * Generates interpretation explanation for a ranking function
      */
-    private void generateRankingFunctionInterpretation(StringBuilder report, String functionName, ScoringFunction scoringFunction) {
+    private void generateRankingFunctionInterpretation(ReportWriter report, String functionName, ScoringFunction scoringFunction) {
         report.append("**Interpretation**: ");
         
         switch (functionName.toLowerCase()) {
@@ -2280,7 +2816,7 @@ public class ReportAnalyzer {
     /**
      * Generates system rankings across all profiles (traditional throughput-based)
      */
-    private void generateSystemRankings(StringBuilder report, Map<String, Map<String, SystemPerformanceData>> allProfileData) {
+    private void generateSystemRankings(ReportWriter report, Map<String, Map<String, SystemPerformanceData>> allProfileData) {
         report.append("## Traditional System Rankings (Throughput-Based)\n\n");
         report.append("*The following rankings are based purely on throughput for comparison with the scored rankings above.*\n\n");
         
@@ -2326,13 +2862,63 @@ public class ReportAnalyzer {
     }
     
     /**
-     * Finds all workload files (*.fio.json) in a system directory
+     * Finds all workload files (*.fio.json) and logs.tar.gz archives in a system directory
      */
     private List<Path> findWorkloadFiles(Path systemDir) throws IOException {
-        return Files.walk(systemDir, FileVisitOption.FOLLOW_LINKS)
-            .filter(Files::isRegularFile)
-            .filter(path -> path.getFileName().toString().endsWith(".fio.json"))
-            .collect(Collectors.toList());
+        List<Path> listedFiles = findListedWorkloadFiles(systemDir);
+        if (listedFiles != null) {
+            return listedFiles;
+        }
+        return getDirectoryWalker().findFiles(systemDir,
+            name -> name.endsWith(".fio.json") || name.equals(ResultDirectoryIndex.LOGS_ARCHIVE));
+    }
+    
+    /**
+     * Fast path for result directories written by bin/run-fio-tests, which records every result
+     * file in files.json. When the *.fio.json files named there are exactly those in the directory,
+     * a single non-recursive listing replaces the recursive walk (subdirectories of such a result
+     * directory only hold the report UI bundle).
+     * @return Workload files and archives in directory listing order, or null when files.json is
+     *         missing, unreadable or stale
+     */
+    private List<Path> findListedWorkloadFiles(Path systemDir) {
+        Path filesJson = systemDir.resolve(FILES_JSON);
+        if (!Files.isRegularFile(filesJson)) {
+            return null;
+        }
+        
+        Set<String> listedNames;
+        try {
+            listedNames = objectMapper.readValue(filesJson.toFile(), new TypeReference<List<String>>() {}).stream()
+                .filter(name -> name.endsWith(".fio.json"))
+                .collect(Collectors.toSet());
+        } catch (IOException e) {
+            System.err.println("Warning: Ignoring unreadable " + filesJson + ": " + e.getMessage());
+            return null;
+        }
+        
+        List<Path> files = new ArrayList<>();
+        Set<String> presentNames = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(systemDir)) {
+            for (Path child : stream) {
+                String name = child.getFileName().toString();
+                boolean workloadFile = name.endsWith(".fio.json");
+                if ((workloadFile || name.equals(ResultDirectoryIndex.LOGS_ARCHIVE)) && Files.isRegularFile(child)) {
+                    files.add(child);
+                    if (workloadFile) {
+                        presentNames.add(name);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        
+        if (!presentNames.equals(listedNames)) {
+            System.out.println("Note: " + filesJson + " does not match the directory contents, walking " + systemDir);
+            return null;
+        }
+        return files;
     }
     
     /**
@@ -0,0 +1,155 @@
+package com.jshook.analysis;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Streaming writer for markdown reports.
+ *
+ * Report sections are appended in order and written through a buffered UTF-8 writer, so a report
+ * is never held in memory as a whole. Output goes to a temporary file next to the target, which
+ * replaces the target atomically on commit(); closing without commit() discards it, so readers
+ * never see a partially written report.
+ *
+ * A writer created with buffer() collects a section in memory instead, to be appended to another
+ * writer later, e.g. when sections are rendered independently but must appear in a fixed order.
+ *
+ * Append methods report I/O errors as UncheckedIOException so that report generators can use
+ * the writer like a StringBuilder; commit() and close() throw IOException.
+ */
+public final class ReportWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path target;
+    private final Path tempFile;
+    private final Writer out;
+    private final StringBuilder buffer;
+    private boolean committed;
+
+    private ReportWriter(Path target, Path tempFile, Writer out, StringBuilder buffer) {
+        this.target = target;
+        this.tempFile = tempFile;
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Starts writing a report that replaces the target file on commit()
+     */
+    public static ReportWriter create(Path target) throws IOException {
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tempFile), StandardCharsets.UTF_8), BUFFER_SIZE);
+        return new ReportWriter(target, tempFile, out, null);
+    }
+
+    /**
+     * Creates an in-memory writer for a report section
+     */
+    public static ReportWriter buffer() {
+        return new ReportWriter(null, null, null, new StringBuilder());
+    }
+
+    public ReportWriter append(String text) {
+        if (buffer != null) {
+            buffer.append(text);
+            return this;
+        }
+        try {
+            out.write(text == null ? "null" : text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    public ReportWriter append(CharSequence text) {
+        return append(String.valueOf(text));
+    }
+
+    public ReportWriter append(CharSequence text, int start, int end) {
+        return append(text.subSequence(start, end).toString());
+    }
+
+    public ReportWriter append(char c) {
+        return append(String.valueOf(c));
+    }
+
+    public ReportWriter append(int value) {
+        return append(String.valueOf(value));
+    }
+
+    public ReportWriter append(long value) {
+        return append(String.valueOf(value));
+    }
+
+    public ReportWriter append(double value) {
+        return append(String.valueOf(value));
+    }
+
+    public ReportWriter append(boolean value) {
+        return append(String.valueOf(value));
+    }
+
+    public ReportWriter append(Object value) {
+        return append(String.valueOf(value));
+    }
+
+    /**
+     * Appends the content of an in-memory section
+     */
+    public ReportWriter append(ReportWriter section) {
+        if (section.buffer == null) {
+            throw new IllegalArgumentException("Only in-memory sections can be appended");
+        }
+        return append(section.buffer.toString());
+    }
+
+    /**
+     * Finishes the report and moves it into place, replacing any previous version
+     */
+    public void commit() throws IOException {
+        if (buffer != null || committed) {
+            return;
+        }
+        out.close();
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    /**
+     * Discards the report unless it was committed
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer != null || committed) {
+            return;
+        }
+        try {
+            out.close();
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Returns the content of an in-memory section
+     */
+    @Override
+    public String toString() {
+        return buffer != null ? buffer.toString() : "ReportWriter[" + target + "]";
+    }
+}
@@ -0,0 +1,351 @@
+package com.jshook.analysis;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of a result tree, built by a single directory walk.
+ *
+ * Stage 1 needs to know, for every directory near the top of the tree, whether it is excluded
+ * by a .noscan marker and whether it (or one of its immediate subdirectories) holds *.fio.json
+ * files or a logs.tar.gz archive. Each directory is listed exactly once and every question is
+ * then answered from the index, so no per-candidate walks or ancestor probes hit the filesystem.
+ *
+ * Directories are listed concurrently on a fork/join pool. The index keeps each directory's
+ * entries in listing order and is flattened afterwards, so the result matches a sequential walk.
+ */
+public class ResultDirectoryIndex {
+
+    /** Maximum depth (relative to the root) at which result directories are discovered */
+    public static final int CANDIDATE_DEPTH = 3;
+
+    /** Depth below a candidate directory that is searched for *.fio.json files */
+    public static final int CONTENT_DEPTH = 2;
+
+    static final String FIO_JSON_SUFFIX = ".fio.json";
+    static final String LOGS_ARCHIVE = "logs.tar.gz";
+    static final String NOSCAN_MARKER = ".noscan";
+
+    private final Path root;
+    private final Map<Path, DirectoryEntry> directories;
+    private final long scannedAt;
+    private final int listedDirectories;
+    private final int reusedDirectories;
+
+    private ResultDirectoryIndex(Path root, Map<Path, DirectoryEntry> directories, long scannedAt,
+                                 int listedDirectories, int reusedDirectories) {
+        this.root = root;
+        this.directories = directories;
+        this.scannedAt = scannedAt;
+        this.listedDirectories = listedDirectories;
+        this.reusedDirectories = reusedDirectories;
+    }
+
+    /**
+     * Walks the tree below root once and indexes every directory that can affect Stage 1
+     */
+    public static ResultDirectoryIndex build(Path root) throws IOException {
+        return build(root, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Indexes the tree below root, reusing listings from a previous scan for every directory
+     * whose modification time has not changed since
+     * @param cache Scan cache from a previous run, or null for a full walk
+     * @param pool Pool on which directories are listed concurrently
+     */
+    public static ResultDirectoryIndex build(Path root, ScanCache cache, ForkJoinPool pool) throws IOException {
+        long scannedAt = System.currentTimeMillis();
+        Walk walk = new Walk(root, cache);
+        BasicFileAttributes rootAttributes = Files.readAttributes(root, BasicFileAttributes.class);
+        DirectoryEntry rootEntry = new DirectoryEntry(root, 0, false, false, rootAttributes.lastModifiedTime().toMillis());
+        pool.invoke(walk.new ScanTask(rootEntry));
+        
+        // Flatten the tree in pre-order, matching the order of a sequential depth-first walk
+        Map<Path, DirectoryEntry> directories = new LinkedHashMap<>();
+        Deque<DirectoryEntry> pending = new ArrayDeque<>();
+        pending.push(rootEntry);
+        while (!pending.isEmpty()) {
+            DirectoryEntry entry = pending.pop();
+            directories.put(entry.path, entry);
+            for (int i = entry.subdirectories.size() - 1; i >= 0; i--) {
+                pending.push(entry.subdirectories.get(i));
+            }
+        }
+        return new ResultDirectoryIndex(root, directories, scannedAt, walk.listed.get(), walk.reused.get());
+    }
+
+    /**
+     * State of a single index build
+     */
+    private static class Walk {
+        private final Path root;
+        private final ScanCache cache;
+        private final Map<String, ScanCache.CachedDirectory> cachedDirectories;
+        private final AtomicInteger listed = new AtomicInteger();
+        private final AtomicInteger reused = new AtomicInteger();
+
+        Walk(Path root, ScanCache cache) {
+            this.root = root;
+            this.cache = cache;
+            this.cachedDirectories = cache != null ? cache.byRelativePath() : Collections.emptyMap();
+        }
+
+        /**
+         * Records a directory's markers, either from the scan cache (when the directory is
+         * unchanged) or from a fresh listing, then scans all subdirectories concurrently
+         */
+        class ScanTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+            private final DirectoryEntry entry;
+
+            ScanTask(DirectoryEntry entry) {
+                this.entry = entry;
+            }
+
+            @Override
+            protected void compute() {
+                // Directories at the deepest level only contribute their own existence
+                if (entry.depth >= CANDIDATE_DEPTH + CONTENT_DEPTH) {
+                    return;
+                }
+
+                ScanCache.CachedDirectory cached = cachedDirectories.get(root.relativize(entry.path).toString());
+                if (cache != null && cache.isReusable(cached, entry.mtime)) {
+                    restoreDirectory(entry, cached);
+                } else {
+                    listDirectory(entry);
+                }
+
+                List<ScanTask> subtasks = new ArrayList<>();
+                for (DirectoryEntry subdirectory : entry.subdirectories) {
+                    subtasks.add(new ScanTask(subdirectory));
+                }
+                invokeAll(subtasks);
+            }
+        }
+
+        /**
+         * Restores a directory from the scan cache; subdirectories still get a stat each so that
+         * changes further down the tree are picked up
+         */
+        private void restoreDirectory(DirectoryEntry entry, ScanCache.CachedDirectory cached) {
+            reused.incrementAndGet();
+            entry.hasNoscan = cached.isNoscan();
+            entry.hasLogsArchive = cached.isLogsArchive();
+            entry.fioJsonFiles.addAll(cached.getFioJsonFiles());
+
+            Set<String> symlinked = new HashSet<>(cached.getSymlinkedSubdirectories());
+            for (String name : cached.getSubdirectories()) {
+                Path child = entry.path.resolve(name);
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    addSubdirectory(entry, child, symlinked.contains(name), attributes);
+                }
+            }
+        }
+
+        /**
+         * Lists a directory and records its markers. Symbolic links are followed (as the *.fio.json
+         * search always did), but directories reached through a link are flagged so they are not
+         * reported as candidates themselves.
+         */
+        private void listDirectory(DirectoryEntry entry) {
+            listed.incrementAndGet();
+            List<Path> children = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(entry.path)) {
+                for (Path child : stream) {
+                    children.add(child);
+                }
+            } catch (IOException e) {
+                System.out.println("Error checking directory " + entry.path + ": " + e.getMessage());
+                return;
+            }
+
+            for (Path child : children) {
+                BasicFileAttributes attributes;
+                boolean symlink;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    symlink = attributes.isSymbolicLink();
+                    if (symlink) {
+                        attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                    }
+                } catch (IOException e) {
+                    // Dangling links and entries removed during the walk are simply not there
+                    continue;
+                }
+
+                String name = child.getFileName().toString();
+                if (name.equals(NOSCAN_MARKER)) {
+                    entry.hasNoscan = true;
+                } else if (name.equals(LOGS_ARCHIVE)) {
+                    entry.hasLogsArchive = true;
+                }
+
+                if (attributes.isDirectory()) {
+                    addSubdirectory(entry, child, symlink, attributes);
+                } else if (attributes.isRegularFile() && name.endsWith(FIO_JSON_SUFFIX)) {
+                    entry.fioJsonFiles.add(name);
+                }
+            }
+        }
+
+        private void addSubdirectory(DirectoryEntry parent, Path child, boolean symlink, BasicFileAttributes attributes) {
+            parent.subdirectories.add(new DirectoryEntry(child, parent.depth + 1, symlink,
+                parent.symlink || parent.linked, attributes.lastModifiedTime().toMillis()));
+        }
+    }
+
+    /**
+     * Converts the index into its persistent form. Only directories that were actually listed
+     * (those above the deepest level) are stored.
+     */
+    public ScanCache toScanCache() {
+        List<ScanCache.CachedDirectory> cachedDirectories = new ArrayList<>();
+        for (DirectoryEntry entry : directories.values()) {
+            if (entry.depth >= CANDIDATE_DEPTH + CONTENT_DEPTH) {
+                continue;
+            }
+            List<String> subdirectories = new ArrayList<>();
+            List<String> symlinkedSubdirectories = new ArrayList<>();
+            for (DirectoryEntry subdirectory : entry.subdirectories) {
+                String name = subdirectory.path.getFileName().toString();
+                subdirectories.add(name);
+                if (subdirectory.symlink) {
+                    symlinkedSubdirectories.add(name);
+                }
+            }
+            cachedDirectories.add(new ScanCache.CachedDirectory(root.relativize(entry.path).toString(), entry.mtime,
+                entry.hasNoscan, entry.hasLogsArchive, new ArrayList<>(entry.fioJsonFiles), subdirectories, symlinkedSubdirectories));
+        }
+        return new ScanCache(root, scannedAt, cachedDirectories);
+    }
+
+    /**
+     * Number of directories listed from the filesystem during the build
+     */
+    public int getListedDirectories() {
+        return listedDirectories;
+    }
+
+    /**
+     * Number of directories restored from the scan cache during the build
+     */
+    public int getReusedDirectories() {
+        return reusedDirectories;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns all indexed directories in walk order
+     */
+    public Collection<DirectoryEntry> getDirectories() {
+        return Collections.unmodifiableCollection(directories.values());
+    }
+
+    /**
+     * Returns directories that are eligible as Stage 1 candidates, in walk order.
+     * Candidates lie within CANDIDATE_DEPTH of the root and were not reached through a symbolic link.
+     */
+    public List<Path> getCandidateDirectories() {
+        List<Path> candidates = new ArrayList<>();
+        for (DirectoryEntry entry : directories.values()) {
+            if (entry.depth >= 1 && entry.depth <= CANDIDATE_DEPTH && !entry.linked) {
+                candidates.add(entry.path);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Checks if directory should be scanned (no .noscan marker in it or any ancestor below the root)
+     */
+    public boolean shouldScanDirectory(Path directory) {
+        Path current = directory;
+        while (current != null && !current.equals(root)) {
+            DirectoryEntry entry = directories.get(current);
+            if (entry != null && entry.hasNoscan) {
+                return false;
+            }
+            current = current.getParent();
+        }
+        return true;
+    }
+
+    /**
+     * Checks if directory holds a logs.tar.gz archive, or *.fio.json files either directly or
+     * in one of its immediate subdirectories
+     */
+    public boolean containsFioJsonFiles(Path directory) {
+        DirectoryEntry entry = directories.get(directory);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.hasLogsArchive || !entry.fioJsonFiles.isEmpty()) {
+            return true;
+        }
+        for (DirectoryEntry subdirectory : entry.subdirectories) {
+            if (!subdirectory.fioJsonFiles.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index entry for a directory, or null if it was not indexed
+     */
+    public DirectoryEntry getEntry(Path directory) {
+        return directories.get(directory);
+    }
+
+    /**
+     * Facts recorded for a single directory during the walk
+     */
+    public static class DirectoryEntry {
+        private final Path path;
+        private final int depth;
+        private final boolean symlink;
+        private final boolean linked;
+        private final long mtime;
+        private final List<DirectoryEntry> subdirectories = new ArrayList<>();
+        private final List<String> fioJsonFiles = new ArrayList<>();
+        private boolean hasLogsArchive;
+        private boolean hasNoscan;
+
+        DirectoryEntry(Path path, int depth, boolean symlink, boolean linked, long mtime) {
+            this.path = path;
+            this.depth = depth;
+            this.symlink = symlink;
+            this.linked = linked;
+            this.mtime = mtime;
+        }
+
+        public Path getPath() { return path; }
+        public int getDepth() { return depth; }
+        public boolean isSymlink() { return symlink; }
+        public boolean isLinked() { return linked; }
+        public long getMtime() { return mtime; }
+        public List<DirectoryEntry> getSubdirectories() { return Collections.unmodifiableList(subdirectories); }
+        public List<String> getFioJsonFiles() { return Collections.unmodifiableList(fioJsonFiles); }
+        public boolean hasLogsArchive() { return hasLogsArchive; }
+        public boolean hasNoscan() { return hasNoscan; }
+    }
+}
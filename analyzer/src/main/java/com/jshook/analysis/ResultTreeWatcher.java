@@ -0,0 +1,304 @@
+package com.jshook.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch mode: keeps a completed analysis up to date while results arrive.
+ *
+ * The result tree is watched with a WatchService. Events on result files, logs.tar.gz archives,
+ * files.json listings and fio time-series logs are collected until the tree has been quiet for
+ * the debounce interval, then the batch is mapped to the systems it touches. Only those systems
+ * are re-analyzed (Stage 2), after which results.store and DUPLICATE_RESULTS.md are rewritten;
+ * Stage 3 is regenerated for profiles whose systems changed metrics (compared against the
+ * analyzer's SystemMetricsRegistry), and Stage 4 once per batch. Directory creation, removal or
+ * .noscan markers trigger a fresh Stage 1 enumeration, so new and removed systems are picked up
+ * as well. Rankings are kept in incremental indexes, so only systems with changed metrics are
+ * re-scored.
+ */
+public class ResultTreeWatcher {
+
+    /** Quiet period after the last event before a batch is processed */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 2000;
+
+    private final ReportAnalyzer analyzer;
+    private final Path root;
+    private final Path reportPath;
+    private final long debounceMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final SystemMetricsRegistry metricsRegistry;
+    private AnalysisManifest manifest;
+    private WatchService watchService;
+
+    public ResultTreeWatcher(ReportAnalyzer analyzer, Path reportPath, AnalysisManifest manifest) {
+        this(analyzer, reportPath, manifest, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public ResultTreeWatcher(ReportAnalyzer analyzer, Path reportPath, AnalysisManifest manifest, long debounceMillis) {
+        this.analyzer = analyzer;
+        this.metricsRegistry = analyzer.getMetricsRegistry();
+        this.root = analyzer.getWorkingDirectory();
+        this.reportPath = reportPath;
+        this.manifest = manifest;
+        this.debounceMillis = debounceMillis;
+        analyzer.enableIncrementalRanking();
+    }
+
+    /**
+     * Watches the result tree until the thread is interrupted
+     */
+    public void run() throws IOException {
+        try (WatchService service = root.getFileSystem().newWatchService()) {
+            watchService = service;
+            registerTree(root);
+            System.out.println("Watching " + root + " (" + watchedDirectories.size() + " directories) for result changes...");
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Batch batch = collectBatch();
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                try {
+                    processBatch(batch);
+                } catch (IOException e) {
+                    // Results may still be in flux; the next batch retries the affected stages
+                    System.err.println("Error updating analysis: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shut down from another thread
+        } finally {
+            watchService = null;
+            watchedDirectories.clear();
+        }
+    }
+
+    /**
+     * Registers every directory below start, except report directories and hidden directories
+     */
+    private void registerTree(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(root) && isIgnoredDirectory(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private boolean isIgnoredDirectory(Path dir) {
+        String name = dir.getFileName().toString();
+        return dir.startsWith(reportPath)
+            || name.startsWith(".")
+            || (dir.getParent() != null && dir.getParent().equals(root)
+                && (name.equals("report") || name.startsWith("report_")));
+    }
+
+    /**
+     * Blocks for the first event, then keeps collecting until no event arrived for the debounce interval
+     */
+    private Batch collectBatch() throws InterruptedException, IOException {
+        Batch batch = new Batch();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            handleEvents(key, batch);
+            key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+        }
+        return batch;
+    }
+
+    private void handleEvents(WatchKey key, Batch batch) throws IOException {
+        Path dir = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                batch.overflow = true;
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (path.startsWith(reportPath)) {
+                continue;
+            }
+            String name = path.getFileName().toString();
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                if (!isIgnoredDirectory(path)) {
+                    registerTree(path);
+                    batch.structureChanged = true;
+                    batch.changedPaths.add(path);
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE && watchedDirectories.containsValue(path)) {
+                batch.structureChanged = true;
+                batch.changedPaths.add(path);
+            } else if (name.equals(ResultDirectoryIndex.NOSCAN_MARKER)) {
+                batch.structureChanged = true;
+            } else if (name.endsWith(ResultDirectoryIndex.FIO_JSON_SUFFIX)
+                || name.equals(ResultDirectoryIndex.LOGS_ARCHIVE)
+                || name.equals("files.json")
+                || WorkloadTimeSeries.LOG_FILE.matcher(name).matches()) {
+                batch.changedPaths.add(path);
+            }
+        }
+        if (!key.reset()) {
+            // The directory itself is gone
+            watchedDirectories.remove(key);
+            batch.structureChanged = true;
+        }
+    }
+
+    /**
+     * Re-runs the stages affected by one batch of changes
+     */
+    private void processBatch(Batch batch) throws IOException {
+        long startTime = System.currentTimeMillis();
+        AnalysisManifest previous = manifest;
+        Set<String> affectedSystems = new TreeSet<>();
+        Set<String> affectedProfiles = new TreeSet<>();
+
+        // A file outside all known systems may turn its directory into a new system
+        for (Path path : batch.changedPaths) {
+            if (findSystems(previous, path).isEmpty()) {
+                batch.structureChanged = true;
+            }
+        }
+
+        if (batch.structureChanged || batch.overflow) {
+            manifest = analyzer.enumerateResults(reportPath);
+            if (!manifest.getSystemProfileGroups().equals(previous.getSystemProfileGroups())) {
+                analyzer.createManifest(reportPath, manifest);
+                analyzer.createMarkdownManifest(reportPath, manifest);
+                removeStaleReports(previous, affectedProfiles);
+            }
+            // Added systems and systems whose directory changed need a first analysis
+            for (String systemProfile : manifest.getSystemProfiles()) {
+                Map<String, Path> systems = manifest.getSystemsForProfile(systemProfile);
+                Map<String, Path> previousSystems = previous.getSystemsForProfile(systemProfile);
+                for (Map.Entry<String, Path> entry : systems.entrySet()) {
+                    if (batch.overflow || !entry.getValue().equals(previousSystems.get(entry.getKey()))) {
+                        affectedSystems.add(systemKey(systemProfile, entry.getKey()));
+                    }
+                }
+                if (!systems.keySet().equals(previousSystems.keySet())) {
+                    affectedProfiles.add(systemProfile);
+                }
+            }
+        }
+        for (Path path : batch.changedPaths) {
+            affectedSystems.addAll(findSystems(manifest, path));
+        }
+
+        // Stage 2 for touched systems; profiles only need Stage 3 when metrics actually moved
+        Map<String, SystemMetrics> previousMetrics = new HashMap<>();
+        for (String key : affectedSystems) {
+            SystemMetrics metrics = metricsRegistry.peek(key);
+            if (metrics != null) {
+                previousMetrics.put(key, metrics);
+            }
+        }
+        for (Map.Entry<String, SystemMetrics> entry : analyzer.updateSystems(reportPath, manifest, affectedSystems::contains).entrySet()) {
+            SystemMetrics metrics = entry.getValue();
+            if (!sameMetrics(previousMetrics.get(entry.getKey()), metrics)) {
+                affectedProfiles.add(metrics.getSystemProfile());
+            }
+        }
+
+        for (String systemProfile : affectedProfiles) {
+            if (manifest.getSystemProfile(systemProfile) != null) {
+                System.out.println("Creating performance profile for: " + systemProfile);
+                analyzer.createSystemPerformanceProfile(reportPath, systemProfile, manifest);
+            }
+        }
+        if (!affectedProfiles.isEmpty()) {
+            analyzer.executeStage4Analysis(reportPath, manifest);
+        }
+
+        System.out.println("Updated " + affectedSystems.size() + " systems and " + affectedProfiles.size()
+            + " profiles in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    /**
+     * Deletes reports of systems and profiles that are no longer in the manifest
+     */
+    private void removeStaleReports(AnalysisManifest previous, Set<String> affectedProfiles) throws IOException {
+        for (String systemProfile : previous.getSystemProfiles()) {
+            boolean profileRemoved = manifest.getSystemProfile(systemProfile) == null;
+            Map<String, Path> systems = manifest.getSystemsForProfile(systemProfile);
+            for (String systemName : previous.getSystemsForProfile(systemProfile).keySet()) {
+                if (!systems.containsKey(systemName)) {
+                    String key = systemKey(systemProfile, systemName);
+                    metricsRegistry.remove(key);
+                    Files.deleteIfExists(reportPath.resolve(key + ".md"));
+                    Files.deleteIfExists(reportPath.resolve(key + ".json"));
+                    affectedProfiles.add(systemProfile);
+                }
+            }
+            if (profileRemoved) {
+                Files.deleteIfExists(reportPath.resolve("PROFILE_" + systemProfile + ".md"));
+                Files.deleteIfExists(reportPath.resolve("PROFILE_" + systemProfile + ".json"));
+            }
+        }
+    }
+
+    /**
+     * Returns the keys of all systems whose directory contains the path
+     */
+    private static List<String> findSystems(AnalysisManifest manifest, Path path) {
+        List<String> systems = new ArrayList<>();
+        for (String systemProfile : manifest.getSystemProfiles()) {
+            for (Map.Entry<String, Path> entry : manifest.getSystemsForProfile(systemProfile).entrySet()) {
+                if (path.startsWith(entry.getValue())) {
+                    systems.add(systemKey(systemProfile, entry.getKey()));
+                }
+            }
+        }
+        return systems;
+    }
+
+    /**
+     * Compares two metrics snapshots, ignoring when they were taken
+     */
+    private boolean sameMetrics(SystemMetrics a, SystemMetrics b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        ObjectNode treeA = objectMapper.valueToTree(a);
+        ObjectNode treeB = objectMapper.valueToTree(b);
+        treeA.remove("analysis_timestamp");
+        treeB.remove("analysis_timestamp");
+        return treeA.equals(treeB);
+    }
+
+    private static String systemKey(String systemProfile, String systemName) {
+        return systemProfile + "__" + systemName;
+    }
+
+    /**
+     * Changes collected between two quiet periods
+     */
+    private static class Batch {
+        private final Set<Path> changedPaths = new LinkedHashSet<>();
+        private boolean structureChanged;
+        private boolean overflow;
+
+        boolean isEmpty() {
+            return changedPaths.isEmpty() && !structureChanged && !overflow;
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.jshook.analysis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact binary store of the parsed fio results of one report directory.
+ *
+ * A full analysis writes the workloads of every system to results.store in the report directory,
+ * so later runs with --from-store can repeat Stages 2 to 4 without walking the result tree or
+ * parsing any JSON. The file is a header followed by sections of fixed-width records:
+ * systems, listed workload files, workloads, fio results, jobs, job directions (read/write), clat
+ * percentiles and the buckets of json+ latency histograms. Records refer to each other by index and to names through a string
+ * dictionary, and results shared by several workloads (byte-identical files) are stored once.
+ * The file is memory-mapped and records are decoded on demand.
+ */
+public final class ResultsStore {
+
+    public static final String FILENAME = "results.store";
+
+    private static final int MAGIC = 0x46494f53; // "FIOS"
+    private static final int VERSION = 4;
+    private static final int HEADER_SIZE = 12 * 4;
+
+    // Record widths in bytes
+    private static final int SYSTEM_RECORD = 8 * 4;     // profile, name, path, profile path, first listed, listed, first workload, workloads
+    private static final int LISTED_RECORD = 4;         // file name as shown in the system report
+    private static final int WORKLOAD_RECORD = 6 * 4;   // file name, source, type, test id, parameter, result
+    private static final int RESULT_RECORD = 4 + 8 + 4 + 4; // fio version, timestamp, first job, jobs (-1 for none)
+    private static final int JOB_RECORD = 3 * 4;        // job name, read direction, write direction (-1 for none)
+    private static final int DIRECTION_RECORD = 12 * 8 + 5 * 4; // io_bytes, bw, iops, runtime, total_ios, clat mean, flags, first percentile, percentiles,
+                                                               // first bucket, buckets, bw mean, bw dev, bw samples, iops mean, iops dev, iops samples
+    private static final int PERCENTILE_RECORD = 4 + 8; // percentile name (~id for a null value), value
+    private static final int BUCKET_RECORD = 4 + 8;     // histogram bucket index, samples
+
+    private static final int HAS_LATENCY = 1;
+    private static final int HAS_PERCENTILES = 2;
+    private static final int HAS_HISTOGRAM = 4;
+
+    private final Path root;
+    private final ByteBuffer buffer;
+    private final int systemCount;
+    private final int stringOffsets, stringData, systems, listed, workloads, results, jobs, directions, percentiles, buckets;
+    private final String[] strings;
+    private final FioResult[] decodedResults;
+
+    private ResultsStore(Path root, ByteBuffer buffer) throws IOException {
+        this.root = root;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a results store");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported results store version " + buffer.getInt(4));
+        }
+        int stringCount = buffer.getInt(8);
+        int stringBytes = buffer.getInt(12);
+        this.systemCount = buffer.getInt(16);
+        int listedCount = buffer.getInt(20);
+        int workloadCount = buffer.getInt(24);
+        int resultCount = buffer.getInt(28);
+        int jobCount = buffer.getInt(32);
+        int directionCount = buffer.getInt(36);
+        int percentileCount = buffer.getInt(40);
+        int bucketCount = buffer.getInt(44);
+
+        this.stringOffsets = HEADER_SIZE;
+        this.stringData = stringOffsets + (stringCount + 1) * 4;
+        this.systems = stringData + stringBytes;
+        this.listed = systems + systemCount * SYSTEM_RECORD;
+        this.workloads = listed + listedCount * LISTED_RECORD;
+        this.results = workloads + workloadCount * WORKLOAD_RECORD;
+        this.jobs = results + resultCount * RESULT_RECORD;
+        this.directions = jobs + jobCount * JOB_RECORD;
+        this.percentiles = directions + directionCount * DIRECTION_RECORD;
+        this.buckets = percentiles + percentileCount * PERCENTILE_RECORD;
+        if (buckets + (long) bucketCount * BUCKET_RECORD != buffer.capacity()) {
+            throw new IOException("Results store is truncated or damaged");
+        }
+        this.strings = new String[stringCount];
+        this.decodedResults = new FioResult[resultCount];
+    }
+
+    /**
+     * Opens a store for reading
+     * @param root The result tree root that the stored system paths are relative to
+     */
+    public static ResultsStore open(Path file, Path root) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ResultsStore(root, buffer);
+        }
+    }
+
+    /**
+     * Rebuilds the manifest of the analysis the store was written from
+     */
+    public AnalysisManifest getManifest() {
+        Map<String, Map<String, Path>> systemPaths = new LinkedHashMap<>();
+        Map<String, Path> profilePaths = new HashMap<>();
+        for (int system = 0; system < systemCount; system++) {
+            int record = systems + system * SYSTEM_RECORD;
+            String profile = string(buffer.getInt(record));
+            systemPaths.computeIfAbsent(profile, key -> new LinkedHashMap<>())
+                .put(string(buffer.getInt(record + 4)), root.resolve(string(buffer.getInt(record + 8))));
+            profilePaths.put(profile, root.resolve(string(buffer.getInt(record + 12))));
+        }
+
+        Map<String, AnalysisManifest.SystemProfile> systemProfileGroups = new HashMap<>();
+        for (Map.Entry<String, Map<String, Path>> entry : systemPaths.entrySet()) {
+            systemProfileGroups.put(entry.getKey(),
+                new AnalysisManifest.SystemProfile(entry.getValue(), profilePaths.get(entry.getKey())));
+        }
+        return new AnalysisManifest(systemProfileGroups);
+    }
+
+    /**
+     * Returns the stored workloads of a system
+     * @return The system, or null if the store does not contain it
+     */
+    public StoredSystem getSystem(String systemProfile, String systemName) {
+        for (int system = 0; system < systemCount; system++) {
+            int record = systems + system * SYSTEM_RECORD;
+            if (systemProfile.equals(string(buffer.getInt(record))) && systemName.equals(string(buffer.getInt(record + 4)))) {
+                return new StoredSystem(record);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The workloads of one system as they were read from the result tree
+     */
+    public final class StoredSystem {
+        private final int record;
+
+        private StoredSystem(int record) {
+            this.record = record;
+        }
+
+        /**
+         * Workload files as listed in the system report, including files that could not be parsed
+         */
+        public List<String> getListedFiles() {
+            int first = buffer.getInt(record + 16);
+            int count = buffer.getInt(record + 20);
+            List<String> files = new ArrayList<>(count);
+            for (int i = first; i < first + count; i++) {
+                files.add(string(buffer.getInt(listed + i * LISTED_RECORD)));
+            }
+            return files;
+        }
+
+        /**
+         * Parsed workloads, in the order they were analyzed
+         */
+        public List<WorkloadAnalyzer.WorkloadResult> getWorkloads() {
+            int first = buffer.getInt(record + 24);
+            int count = buffer.getInt(record + 28);
+            List<WorkloadAnalyzer.WorkloadResult> results = new ArrayList<>(count);
+            for (int i = first; i < first + count; i++) {
+                int workload = workloads + i * WORKLOAD_RECORD;
+                results.add(new WorkloadAnalyzer.WorkloadResult(
+                    string(buffer.getInt(workload)), string(buffer.getInt(workload + 4)),
+                    string(buffer.getInt(workload + 8)), string(buffer.getInt(workload + 12)),
+                    string(buffer.getInt(workload + 16)), result(buffer.getInt(workload + 20))));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Decodes a stored fio result; workloads that share a result share the decoded instance
+     */
+    private synchronized FioResult result(int index) {
+        FioResult fioResult = decodedResults[index];
+        if (fioResult != null) {
+            return fioResult;
+        }
+        int record = results + index * RESULT_RECORD;
+        fioResult = new FioResult();
+        fioResult.setFioVersion(string(buffer.getInt(record)));
+        fioResult.setTimestamp(buffer.getLong(record + 4));
+        int firstJob = buffer.getInt(record + 12);
+        int jobCount = buffer.getInt(record + 16);
+        if (jobCount >= 0) {
+            List<FioResult.FioJob> jobList = new ArrayList<>(jobCount);
+            for (int job = firstJob; job < firstJob + jobCount; job++) {
+                int jobRecord = jobs + job * JOB_RECORD;
+                FioResult.FioJob fioJob = new FioResult.FioJob();
+                fioJob.setJobname(string(buffer.getInt(jobRecord)));
+                fioJob.setRead(direction(buffer.getInt(jobRecord + 4)));
+                fioJob.setWrite(direction(buffer.getInt(jobRecord + 8)));
+                jobList.add(fioJob);
+            }
+            fioResult.setJobs(jobList);
+        }
+        decodedResults[index] = fioResult;
+        return fioResult;
+    }
+
+    private FioResult.FioMetrics direction(int index) {
+        if (index < 0) {
+            return null;
+        }
+        int record = directions + index * DIRECTION_RECORD;
+        FioResult.FioMetrics metrics = new FioResult.FioMetrics();
+        metrics.setIoBytes(buffer.getLong(record));
+        metrics.setBandwidth(buffer.getDouble(record + 8));
+        metrics.setIops(buffer.getDouble(record + 16));
+        metrics.setRuntime(buffer.getLong(record + 24));
+        metrics.setTotalIos(buffer.getLong(record + 32));
+        metrics.setBandwidthMean(buffer.getDouble(record + 68));
+        metrics.setBandwidthDeviation(buffer.getDouble(record + 76));
+        metrics.setBandwidthSamples(buffer.getLong(record + 84));
+        metrics.setIopsMean(buffer.getDouble(record + 92));
+        metrics.setIopsDeviation(buffer.getDouble(record + 100));
+        metrics.setIopsSamples(buffer.getLong(record + 108));
+        int flags = buffer.getInt(record + 48);
+        if ((flags & HAS_LATENCY) != 0) {
+            FioResult.LatencyStats latency = new FioResult.LatencyStats();
+            latency.setMean(buffer.getDouble(record + 40));
+            if ((flags & HAS_PERCENTILES) != 0) {
+                int first = buffer.getInt(record + 52);
+                int count = buffer.getInt(record + 56);
+                Map<String, Double> values = new LinkedHashMap<>();
+                for (int i = first; i < first + count; i++) {
+                    int percentile = percentiles + i * PERCENTILE_RECORD;
+                    int name = buffer.getInt(percentile);
+                    if (name < 0) {
+                        values.put(string(~name), null);
+                    } else {
+                        values.put(string(name), buffer.getDouble(percentile + 4));
+                    }
+                }
+                latency.setPercentiles(values);
+            }
+            if ((flags & HAS_HISTOGRAM) != 0) {
+                int first = buffer.getInt(record + 60);
+                int count = buffer.getInt(record + 64);
+                LatencyHistogram histogram = new LatencyHistogram();
+                for (int i = first; i < first + count; i++) {
+                    int bucket = buckets + i * BUCKET_RECORD;
+                    histogram.addBucket(buffer.getInt(bucket), buffer.getLong(bucket + 4));
+                }
+                latency.setHistogram(histogram);
+            }
+            metrics.setCompletionLatency(latency);
+        }
+        return metrics;
+    }
+
+    private String string(int id) {
+        if (id < 0) {
+            return null;
+        }
+        synchronized (strings) {
+            String value = strings[id];
+            if (value == null) {
+                int start = buffer.getInt(stringOffsets + id * 4);
+                int end = buffer.getInt(stringOffsets + (id + 1) * 4);
+                byte[] bytes = new byte[end - start];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = buffer.get(stringData + start + i);
+                }
+                value = new String(bytes, StandardCharsets.UTF_8);
+                strings[id] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Collects the workloads of the systems analyzed in Stage 2 and writes them as a store.
+     * Systems may be added concurrently.
+     */
+    public static final class Builder {
+        private final Path root;
+        private final Map<String, SystemEntry> systems = new HashMap<>();
+
+        /**
+         * @param root The result tree root; system paths are stored relative to it
+         */
+        public Builder(Path root) {
+            this.root = root;
+        }
+
+        /**
+         * Records the workloads of one system
+         * @param listedFiles Workload files as listed in the system report
+         * @param workloads Parsed workloads, in the order they were analyzed
+         */
+        public synchronized void addSystem(String systemProfile, String systemName, Path systemDir,
+                                           List<String> listedFiles, List<WorkloadAnalyzer.WorkloadResult> workloads) {
+            systems.put(systemProfile + "__" + systemName,
+                new SystemEntry(systemProfile, systemName, systemDir, new ArrayList<>(listedFiles), new ArrayList<>(workloads)));
+        }
+
+        /**
+         * Writes the systems of the manifest, in manifest order, replacing the file atomically
+         * @return The number of systems written
+         */
+        public synchronized int write(Path file, AnalysisManifest manifest) throws IOException {
+            Encoder encoder = new Encoder();
+            for (String systemProfile : manifest.getSystemProfiles()) {
+                AnalysisManifest.SystemProfile profile = manifest.getSystemProfile(systemProfile);
+                String profilePath = root.relativize(profile.getSystemProfilePath()).toString();
+                for (String systemName : profile.getSystemPaths().keySet()) {
+                    SystemEntry entry = systems.get(systemProfile + "__" + systemName);
+                    if (entry != null) {
+                        encoder.addSystem(entry, root.relativize(entry.systemDir).toString(), profilePath);
+                    }
+                }
+            }
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                Files.write(temp, encoder.toByteArray());
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return encoder.systemCount;
+        }
+    }
+
+    private static final class SystemEntry {
+        final String systemProfile;
+        final String systemName;
+        final Path systemDir;
+        final List<String> listedFiles;
+        final List<WorkloadAnalyzer.WorkloadResult> workloads;
+
+        SystemEntry(String systemProfile, String systemName, Path systemDir,
+                    List<String> listedFiles, List<WorkloadAnalyzer.WorkloadResult> workloads) {
+            this.systemProfile = systemProfile;
+            this.systemName = systemName;
+            this.systemDir = systemDir;
+            this.listedFiles = listedFiles;
+            this.workloads = workloads;
+        }
+    }
+
+    /**
+     * Lays out the record sections of a store
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        private final List<Integer> stringOffsets = new ArrayList<>();
+        private final Map<FioResult, Integer> resultIds = new IdentityHashMap<>();
+        private final DataSection systems = new DataSection();
+        private final DataSection listed = new DataSection();
+        private final DataSection workloads = new DataSection();
+        private final DataSection results = new DataSection();
+        private final DataSection jobs = new DataSection();
+        private final DataSection directions = new DataSection();
+        private final DataSection percentiles = new DataSection();
+        private final DataSection buckets = new DataSection();
+        private int systemCount, listedCount, workloadCount, jobCount, directionCount, percentileCount, bucketCount;
+
+        void addSystem(SystemEntry entry, String systemPath, String profilePath) throws IOException {
+            systems.out.writeInt(id(entry.systemProfile));
+            systems.out.writeInt(id(entry.systemName));
+            systems.out.writeInt(id(systemPath));
+            systems.out.writeInt(id(profilePath));
+            systems.out.writeInt(listedCount);
+            systems.out.writeInt(entry.listedFiles.size());
+            systems.out.writeInt(workloadCount);
+            systems.out.writeInt(entry.workloads.size());
+            systemCount++;
+
+            for (String listedFile : entry.listedFiles) {
+                listed.out.writeInt(id(listedFile));
+                listedCount++;
+            }
+            for (WorkloadAnalyzer.WorkloadResult workload : entry.workloads) {
+                workloads.out.writeInt(id(workload.getFilename()));
+                workloads.out.writeInt(id(workload.getSource()));
+                workloads.out.writeInt(id(workload.getWorkloadType()));
+                workloads.out.writeInt(id(workload.getTestId()));
+                workloads.out.writeInt(id(workload.getParameter()));
+                workloads.out.writeInt(resultId(workload.getFioResult()));
+                workloadCount++;
+            }
+        }
+
+        private int resultId(FioResult fioResult) throws IOException {
+            Integer existing = resultIds.get(fioResult);
+            if (existing != null) {
+                return existing;
+            }
+            int resultId = resultIds.size();
+            resultIds.put(fioResult, resultId);
+
+            List<FioResult.FioJob> jobList = fioResult.getJobs();
+            results.out.writeInt(id(fioResult.getFioVersion()));
+            results.out.writeLong(fioResult.getTimestamp());
+            results.out.writeInt(jobCount);
+            results.out.writeInt(jobList != null ? jobList.size() : -1);
+            if (jobList != null) {
+                for (FioResult.FioJob job : jobList) {
+                    // A job that was not an object in the JSON has no name or directions either
+                    jobs.out.writeInt(job != null ? id(job.getJobname()) : -1);
+                    jobs.out.writeInt(job != null ? direction(job.getRead()) : -1);
+                    jobs.out.writeInt(job != null ? direction(job.getWrite()) : -1);
+                    jobCount++;
+                }
+            }
+            return resultId;
+        }
+
+        private int direction(FioResult.FioMetrics metrics) throws IOException {
+            if (metrics == null) {
+                return -1;
+            }
+            FioResult.LatencyStats latency = metrics.getCompletionLatency();
+            Map<String, Double> values = latency != null ? latency.getPercentiles() : null;
+            LatencyHistogram histogram = latency != null ? latency.getHistogram() : null;
+            int flags = (latency != null ? HAS_LATENCY : 0) | (values != null ? HAS_PERCENTILES : 0)
+                | (histogram != null ? HAS_HISTOGRAM : 0);
+
+            directions.out.writeLong(metrics.getIoBytes());
+            directions.out.writeDouble(metrics.getBandwidth());
+            directions.out.writeDouble(metrics.getIops());
+            directions.out.writeLong(metrics.getRuntime());
+            directions.out.writeLong(metrics.getTotalIos());
+            directions.out.writeDouble(latency != null ? latency.getMean() : 0.0);
+            directions.out.writeInt(flags);
+            directions.out.writeInt(percentileCount);
+            directions.out.writeInt(values != null ? values.size() : 0);
+            directions.out.writeInt(bucketCount);
+            directions.out.writeInt(histogram != null ? histogram.getBucketCount() : 0);
+            directions.out.writeDouble(metrics.getBandwidthMean());
+            directions.out.writeDouble(metrics.getBandwidthDeviation());
+            directions.out.writeLong(metrics.getBandwidthSamples());
+            directions.out.writeDouble(metrics.getIopsMean());
+            directions.out.writeDouble(metrics.getIopsDeviation());
+            directions.out.writeLong(metrics.getIopsSamples());
+            if (values != null) {
+                for (Map.Entry<String, Double> value : values.entrySet()) {
+                    int name = id(value.getKey());
+                    percentiles.out.writeInt(value.getValue() != null ? name : ~name);
+                    percentiles.out.writeDouble(value.getValue() != null ? value.getValue() : 0.0);
+                    percentileCount++;
+                }
+            }
+            if (histogram != null) {
+                for (int bucket = 0; bucket < histogram.getBucketCount(); bucket++) {
+                    buckets.out.writeInt(histogram.getBucketIndex(bucket));
+                    buckets.out.writeLong(histogram.getBucketSamples(bucket));
+                    bucketCount++;
+                }
+            }
+            return directionCount++;
+        }
+
+        private int id(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer existing = stringIds.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int stringId = stringOffsets.size();
+            stringIds.put(value, stringId);
+            stringOffsets.add(stringBytes.size());
+            stringBytes.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            return stringId;
+        }
+
+        byte[] toByteArray() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(stringOffsets.size());
+            out.writeInt(stringBytes.size());
+            out.writeInt(systemCount);
+            out.writeInt(listedCount);
+            out.writeInt(workloadCount);
+            out.writeInt(resultIds.size());
+            out.writeInt(jobCount);
+            out.writeInt(directionCount);
+            out.writeInt(percentileCount);
+            out.writeInt(bucketCount);
+            for (int offset : stringOffsets) {
+                out.writeInt(offset);
+            }
+            out.writeInt(stringBytes.size());
+            stringBytes.writeTo(out);
+            for (DataSection section : List.of(systems, listed, workloads, results, jobs, directions, percentiles, buckets)) {
+                section.bytes.writeTo(out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class DataSection {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+    }
+}
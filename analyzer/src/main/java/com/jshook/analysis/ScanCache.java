@@ -0,0 +1,155 @@
+package com.jshook.analysis;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent form of the Stage 1 directory index, stored as scan-cache.json next to manifest.json.
+ *
+ * Each directory is stored with its modification time and the entries Stage 1 cares about.
+ * A later run only re-lists directories whose mtime differs from the cached value; all other
+ * directories are restored from the cache at the cost of a single stat.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ScanCache {
+
+    public static final String FILENAME = "scan-cache.json";
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Directories modified this close (in milliseconds) to the scan itself are not trusted on the
+     * next run, since a change within the same mtime tick would otherwise go unnoticed
+     */
+    static final long MTIME_GRACE_MILLIS = 2000;
+
+    @JsonProperty("version")
+    private int version = FORMAT_VERSION;
+
+    @JsonProperty("root")
+    private String root;
+
+    @JsonProperty("scanned_at")
+    private long scannedAt;
+
+    @JsonProperty("directories")
+    private List<CachedDirectory> directories = new ArrayList<>();
+
+    // Default constructor for Jackson
+    public ScanCache() {}
+
+    public ScanCache(Path root, long scannedAt, List<CachedDirectory> directories) {
+        this.root = root.toString();
+        this.scannedAt = scannedAt;
+        this.directories = directories;
+    }
+
+    public int getVersion() { return version; }
+    public String getRoot() { return root; }
+    public long getScannedAt() { return scannedAt; }
+    public List<CachedDirectory> getDirectories() { return directories; }
+
+    /**
+     * Returns cached directories keyed by their path relative to the root
+     */
+    public Map<String, CachedDirectory> byRelativePath() {
+        Map<String, CachedDirectory> result = new HashMap<>();
+        for (CachedDirectory directory : directories) {
+            result.put(directory.getPath(), directory);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a cached directory listing can be reused for a directory with the given mtime
+     */
+    public boolean isReusable(CachedDirectory cached, long currentMtime) {
+        return cached != null
+            && cached.getMtime() == currentMtime
+            && currentMtime < scannedAt - MTIME_GRACE_MILLIS;
+    }
+
+    /**
+     * Loads the scan cache from a report directory, returning null when it is missing, unreadable,
+     * from another format version, or was built for a different root
+     */
+    public static ScanCache load(Path reportDir, Path root, ObjectMapper objectMapper) {
+        Path cacheFile = reportDir.resolve(FILENAME);
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try {
+            ScanCache cache = objectMapper.readValue(cacheFile.toFile(), ScanCache.class);
+            if (cache.getVersion() != FORMAT_VERSION || !root.toString().equals(cache.getRoot())) {
+                return null;
+            }
+            return cache;
+        } catch (IOException e) {
+            System.err.println("Warning: Ignoring unreadable scan cache " + cacheFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the scan cache into a report directory
+     */
+    public void save(Path reportDir, ObjectMapper objectMapper) throws IOException {
+        objectMapper.writeValue(reportDir.resolve(FILENAME).toFile(), this);
+    }
+
+    /**
+     * Cached listing of a single directory
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CachedDirectory {
+        @JsonProperty("path")
+        private String path;
+
+        @JsonProperty("mtime")
+        private long mtime;
+
+        @JsonProperty("noscan")
+        private boolean noscan;
+
+        @JsonProperty("logs_archive")
+        private boolean logsArchive;
+
+        @JsonProperty("fio_json_files")
+        private List<String> fioJsonFiles = new ArrayList<>();
+
+        @JsonProperty("subdirectories")
+        private List<String> subdirectories = new ArrayList<>();
+
+        @JsonProperty("symlinked_subdirectories")
+        private List<String> symlinkedSubdirectories = new ArrayList<>();
+
+        // Default constructor for Jackson
+        public CachedDirectory() {}
+
+        public CachedDirectory(String path, long mtime, boolean noscan, boolean logsArchive,
+                               List<String> fioJsonFiles, List<String> subdirectories, List<String> symlinkedSubdirectories) {
+            this.path = path;
+            this.mtime = mtime;
+            this.noscan = noscan;
+            this.logsArchive = logsArchive;
+            this.fioJsonFiles = fioJsonFiles;
+            this.subdirectories = subdirectories;
+            this.symlinkedSubdirectories = symlinkedSubdirectories;
+        }
+
+        public String getPath() { return path; }
+        public long getMtime() { return mtime; }
+        public boolean isNoscan() { return noscan; }
+        public boolean isLogsArchive() { return logsArchive; }
+        public List<String> getFioJsonFiles() { return fioJsonFiles; }
+        public List<String> getSubdirectories() { return subdirectories; }
+        public List<String> getSymlinkedSubdirectories() { return symlinkedSubdirectories; }
+    }
+}
@@ -1,7 +1,6 @@
 package com.jshook.analysis;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.*;
 import java.util.function.Function;
 
@@ -36,6 +35,16 @@ public class ScoringFunction {
         public void addComponent(ScoringComponent component) {
             components.add(component);
         }
+        
+        ScoringConfiguration copy() {
+            ScoringConfiguration copy = new ScoringConfiguration();
+            copy.description = description;
+            copy.components = new ArrayList<>(components.size());
+            for (ScoringComponent component : components) {
+                copy.components.add(component.copy());
+            }
+            return copy;
+        }
     }
     
     /**
@@ -52,7 +61,7 @@ public class ScoringFunction {
         private String mappingFunction = "linear"; // linear, log, inverse, threshold
         
         @JsonProperty("normalization")
-        private String normalization = "minmax"; // minmax, zscore, none
+        private String normalization = "none"; // none, minmax, zscore
         
         @JsonProperty("threshold_value")
         private Double thresholdValue;
@@ -99,6 +108,16 @@ public class ScoringFunction {
         
         public boolean isInvertBetter() { return invertBetter; }
         public void setInvertBetter(boolean invertBetter) { this.invertBetter = invertBetter; }
+        
+        ScoringComponent copy() {
+            ScoringComponent copy = new ScoringComponent(metricName, weight, invertBetter);
+            copy.mappingFunction = mappingFunction;
+            copy.normalization = normalization;
+            copy.thresholdValue = thresholdValue;
+            copy.thresholdPenalty = thresholdPenalty;
+            copy.easingFunction = easingFunction;
+            return copy;
+        }
     }
     
     /**
@@ -107,26 +126,119 @@ public class ScoringFunction {
     public static class ScoringResult {
         private final String systemName;
         private final double totalScore;
-        private final Map<String, Double> componentScores;
-        private final String explanation;
+        private final List<ScoringComponent> components;
+        private final double[] componentValues;
+        private final double[] rawValues;
+        private final boolean disqualified;
+        private Map<String, Double> componentScores;
+        private String explanation;
         
         public ScoringResult(String systemName, double totalScore, Map<String, Double> componentScores, String explanation) {
             this.systemName = systemName;
             this.totalScore = totalScore;
             this.componentScores = new HashMap<>(componentScores);
             this.explanation = explanation;
+            this.components = null;
+            this.componentValues = null;
+            this.rawValues = null;
+            this.disqualified = totalScore == 0.0;
+        }
+        
+        /**
+         * Creates a result that keeps the scoring inputs; the component score map and the
+         * explanation are only built when requested
+         * @param componentValues The score of each component, in component order
+         * @param rawValues The raw metric value of each component, in component order
+         */
+        ScoringResult(String systemName, double totalScore, List<ScoringComponent> components, double[] componentValues,
+                      double[] rawValues, boolean disqualified) {
+            this.systemName = systemName;
+            this.totalScore = totalScore;
+            this.components = components;
+            this.componentValues = componentValues;
+            this.rawValues = rawValues;
+            this.disqualified = disqualified;
         }
         
         public String getSystemName() { return systemName; }
         public double getTotalScore() { return totalScore; }
-        public Map<String, Double> getComponentScores() { return componentScores; }
-        public String getExplanation() { return explanation; }
+        
+        /**
+         * Whether the system was excluded from ranking for missing metrics. A qualified system
+         * can also score 0, e.g. when a threshold penalty of 0 applies.
+         */
+        public boolean isDisqualified() { return disqualified; }
+        
+        public Map<String, Double> getComponentScores() {
+            if (componentScores == null) {
+                Map<String, Double> scores = new LinkedHashMap<>(); // In component order, like the explanation
+                for (int i = 0; i < componentValues.length; i++) {
+                    scores.put(components.get(i).getMetricName(), componentValues[i]);
+                }
+                componentScores = Collections.unmodifiableMap(scores); // Cached, so callers must not change it
+            }
+            return componentScores;
+        }
+        
+        public String getExplanation() {
+            if (explanation == null) {
+                explanation = disqualified ? explainDisqualification() : explainScore();
+            }
+            return explanation;
+        }
+        
+        private String explainScore() {
+            StringBuilder explanation = new StringBuilder();
+            explanation.append("Scoring breakdown for ").append(systemName).append(":\\n");
+            
+            for (int i = 0; i < components.size(); i++) {
+                ScoringComponent component = components.get(i);
+                explanation.append(String.format("- %s: %.6f (weight: %.1f, raw: %.1f)\\n", 
+                    component.getMetricName(), componentValues[i], component.getWeight(), rawValues[i]));
+            }
+            
+            explanation.append(String.format("Total Score: %.6f", totalScore));
+            return explanation.toString();
+        }
+        
+        private String explainDisqualification() {
+            StringBuilder explanation = new StringBuilder();
+            explanation.append("DISQUALIFIED - ").append(systemName).append(":\\n");
+            explanation.append("System disqualified due to missing or zero values for required metrics:\\n");
+            
+            for (int i = 0; i < components.size(); i++) {
+                ScoringComponent component = components.get(i);
+                if (rawValues[i] == 0.0) {
+                    explanation.append(String.format("- %s: MISSING/ZERO (required for ranking)\\n", 
+                        component.getMetricName()));
+                } else {
+                    explanation.append(String.format("- %s: %.3f (weight: %.1f)\\n", 
+                        component.getMetricName(), rawValues[i], component.getWeight()));
+                }
+            }
+            
+            explanation.append("Total Score: 0.000 (DISQUALIFIED)");
+            return explanation.toString();
+        }
     }
     
     private final ScoringConfiguration configuration;
+    private final ScoringTerm[] terms; // Compiled term of each component, by index
     
+    /**
+     * Compiles a scoring function
+     * @throws IllegalArgumentException If a component refers to an unknown metric
+     */
     public ScoringFunction(ScoringConfiguration configuration) {
-        this.configuration = configuration;
+        // Keep a private snapshot so that scoring is not affected by later changes to the caller's copy
+        this.configuration = configuration.copy();
+        this.configuration.components = Collections.unmodifiableList(this.configuration.components);
+        
+        List<ScoringComponent> components = this.configuration.getComponents();
+        this.terms = new ScoringTerm[components.size()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = new ScoringTerm(components.get(i));
+        }
     }
     
     /**
@@ -139,57 +251,17 @@ public class ScoringFunction {
     }
     
     /**
-     * Creates a scoring function from the ranking-functions.json file
+     * Returns the scoring function for the given name in ranking-functions.json.
+     * Functions are compiled once by the RankingFunctionRegistry and shared.
      */
     public static ScoringFunction createFromRankingFunctions(String functionName) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            java.io.InputStream inputStream = null;
-            
-            // First try current directory, then classpath
-            java.nio.file.Path rankingFunctionsPath = java.nio.file.Paths.get("ranking-functions.json");
-            if (java.nio.file.Files.exists(rankingFunctionsPath)) {
-                System.out.println("Loading ranking-functions.json from: " + rankingFunctionsPath.toAbsolutePath());
-                inputStream = java.nio.file.Files.newInputStream(rankingFunctionsPath);
-            } else {
-                System.out.println("Loading ranking-functions.json from classpath");
-                inputStream = ScoringFunction.class.getClassLoader()
-                    .getResourceAsStream("ranking-functions.json");
-            }
-            
-            if (inputStream == null) {
-                System.err.println("Warning: ranking-functions.json not found, using hardcoded default");
-                return createHardcodedDefault();
-            }
-            
-            java.util.Map<String, ScoringConfiguration> rankingFunctions = mapper.readValue(
-                inputStream, 
-                new com.fasterxml.jackson.core.type.TypeReference<java.util.Map<String, ScoringConfiguration>>() {}
-            );
-            
-            ScoringConfiguration config = rankingFunctions.get(functionName);
-            if (config == null) {
-                System.err.println("Warning: ranking function '" + functionName + "' not found, using 'default'");
-                config = rankingFunctions.get("default");
-                if (config == null) {
-                    System.err.println("Warning: 'default' ranking function not found, using hardcoded default");
-                    return createHardcodedDefault();
-                }
-            }
-            
-            return new ScoringFunction(config);
-            
-        } catch (Exception e) {
-            System.err.println("Error loading ranking functions: " + e.getMessage());
-            System.err.println("Using hardcoded default ranking function");
-            return createHardcodedDefault();
-        }
+        return RankingFunctionRegistry.getInstance().getFunction(functionName);
     }
     
     /**
      * Creates a hardcoded default scoring function as fallback
      */
-    private static ScoringFunction createHardcodedDefault() {
+    static ScoringFunction createHardcodedDefault() {
         ScoringConfiguration config = new ScoringConfiguration();
         config.setDescription("Default balanced scoring: 60% throughput, 30% latency, 10% consistency");
         
@@ -215,36 +287,10 @@ public class ScoringFunction {
     }
     
     /**
-     * Lists available ranking functions from ranking-functions.json
+     * Lists available ranking functions from ranking-functions.json, in file order
      */
     public static java.util.Set<String> getAvailableRankingFunctions() {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            java.io.InputStream inputStream = null;
-            
-            // First try current directory, then classpath
-            java.nio.file.Path rankingFunctionsPath = java.nio.file.Paths.get("ranking-functions.json");
-            if (java.nio.file.Files.exists(rankingFunctionsPath)) {
-                inputStream = java.nio.file.Files.newInputStream(rankingFunctionsPath);
-            } else {
-                inputStream = ScoringFunction.class.getClassLoader()
-                    .getResourceAsStream("ranking-functions.json");
-            }
-            
-            if (inputStream == null) {
-                return java.util.Set.of("default");
-            }
-            
-            java.util.Map<String, ScoringConfiguration> rankingFunctions = mapper.readValue(
-                inputStream, 
-                new com.fasterxml.jackson.core.type.TypeReference<java.util.Map<String, ScoringConfiguration>>() {}
-            );
-            
-            return rankingFunctions.keySet();
-            
-        } catch (Exception e) {
-            return java.util.Set.of("default");
-        }
+        return RankingFunctionRegistry.getInstance().getFunctionNames();
     }
     
     /**
@@ -267,34 +313,7 @@ public class ScoringFunction {
      * Gets the first ranking function name from ranking-functions.json (used as default)
      */
     public static String getFirstRankingFunction() {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            java.io.InputStream inputStream = null;
-            
-            // First try current directory, then classpath
-            java.nio.file.Path rankingFunctionsPath = java.nio.file.Paths.get("ranking-functions.json");
-            if (java.nio.file.Files.exists(rankingFunctionsPath)) {
-                inputStream = java.nio.file.Files.newInputStream(rankingFunctionsPath);
-            } else {
-                inputStream = ScoringFunction.class.getClassLoader()
-                    .getResourceAsStream("ranking-functions.json");
-            }
-            
-            if (inputStream == null) {
-                return "default";
-            }
-            
-            // Use LinkedHashMap to preserve order
-            java.util.Map<String, ScoringConfiguration> rankingFunctions = mapper.readValue(
-                inputStream, 
-                new com.fasterxml.jackson.core.type.TypeReference<java.util.LinkedHashMap<String, ScoringConfiguration>>() {}
-            );
-            
-            return rankingFunctions.keySet().iterator().next();
-            
-        } catch (Exception e) {
-            return "default";
-        }
+        return RankingFunctionRegistry.getInstance().getFirstFunctionName();
     }
     
     /**
@@ -304,306 +323,258 @@ public class ScoringFunction {
         if (systems.isEmpty()) {
             return new ArrayList<>();
         }
-        
-        // Separate qualified and disqualified systems
-        List<SystemMetrics> qualifiedSystems = new ArrayList<>();
-        List<SystemMetrics> disqualifiedSystems = new ArrayList<>();
-        
-        for (SystemMetrics system : systems) {
-            if (isSystemQualified(system)) {
-                qualifiedSystems.add(system);
-            } else {
-                disqualifiedSystems.add(system);
-            }
-        }
-        
-        // Score qualified systems (no normalization needed)
-        List<ScoringResult> results = new ArrayList<>();
-        for (SystemMetrics system : qualifiedSystems) {
-            ScoringResult result = scoreSystem(system, null);
-            results.add(result);
-        }
-        
-        // Add disqualified systems with zero scores and explanations
-        for (SystemMetrics system : disqualifiedSystems) {
-            ScoringResult disqualifiedResult = createDisqualifiedResult(system);
-            results.add(disqualifiedResult);
-        }
-        
-        // Sort by total score (descending - higher is better)
-        results.sort((a, b) -> Double.compare(b.getTotalScore(), a.getTotalScore()));
-        
-        return results;
+        return scoreAndRankSystems(MetricTable.of(systems));
     }
     
     /**
-     * Checks if a system is qualified for ranking (has all required metrics with non-zero values)
+     * Scores all systems of a metric table and returns ranked results.
+     * Each step runs as a loop over whole metric columns.
      */
-    private boolean isSystemQualified(SystemMetrics system) {
-        for (ScoringComponent component : configuration.getComponents()) {
-            double value = extractMetricValue(system, component.getMetricName());
-            if (value == 0.0) {
-                return false; // Missing or zero metric disqualifies the system
-            }
-        }
-        return true;
+    public List<ScoringResult> scoreAndRankSystems(MetricTable table) {
+        return rank(table, scoreRows(table, null), 0);
     }
     
     /**
-     * Creates a result for a disqualified system with explanation
+     * Returns the best systems of a metric table in rank order, the same as the first entries of
+     * scoreAndRankSystems. Only a heap of at most limit rows is kept while scanning, and results
+     * and explanations are created only for the returned systems.
      */
-    private ScoringResult createDisqualifiedResult(SystemMetrics system) {
-        Map<String, Double> componentScores = new HashMap<>();
-        StringBuilder explanation = new StringBuilder();
-        
-        explanation.append("DISQUALIFIED - ").append(system.getSystemName()).append(":\\n");
-        explanation.append("System disqualified due to missing or zero values for required metrics:\\n");
-        
-        for (ScoringComponent component : configuration.getComponents()) {
-            double value = extractMetricValue(system, component.getMetricName());
-            componentScores.put(component.getMetricName(), 0.0); // All component scores are 0
-            
-            if (value == 0.0) {
-                explanation.append(String.format("- %s: MISSING/ZERO (required for ranking)\\n", 
-                    component.getMetricName()));
-            } else {
-                explanation.append(String.format("- %s: %.3f (weight: %.1f)\\n", 
-                    component.getMetricName(), value, component.getWeight()));
-            }
+    public List<ScoringResult> scoreTopSystems(MetricTable table, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
         }
-        
-        explanation.append("Total Score: 0.000 (DISQUALIFIED)");
-        
-        return new ScoringResult(system.getSystemName(), 0.0, componentScores, explanation.toString());
+        return rank(table, scoreRows(table, null), limit);
     }
     
     /**
-     * Scores a single system
+     * Returns the total score of every system of a metric table in row order, without creating
+     * results (disqualified systems score 0)
      */
-    private ScoringResult scoreSystem(SystemMetrics system, Map<String, MetricStats> metricStats) {
-        Map<String, Double> componentScores = new HashMap<>();
-        double totalScore = 1.0; // Product starts at 1
-        StringBuilder explanation = new StringBuilder();
-        
-        explanation.append("Scoring breakdown for ").append(system.getSystemName()).append(":\\n");
-        
-        for (ScoringComponent component : configuration.getComponents()) {
-            double rawValue = extractMetricValue(system, component.getMetricName());
-            // At this point we know the system is qualified, so all metrics should be non-zero
-            
-            double componentScore = calculateComponentScore(rawValue, component, null);
-            componentScores.put(component.getMetricName(), componentScore);
-            totalScore *= Math.pow(componentScore, component.getWeight());
-            
-            explanation.append(String.format("- %s: %.6f (weight: %.1f, raw: %.1f)\\n", 
-                component.getMetricName(), componentScore, component.getWeight(), rawValue));
-        }
-        
-        explanation.append(String.format("Total Score: %.6f", totalScore));
-        
-        return new ScoringResult(system.getSystemName(), totalScore, componentScores, explanation.toString());
+    public double[] scoreSystems(MetricTable table) {
+        return scoreRows(table, null).totalScores;
     }
     
     /**
-     * Calculates score for a single component
+     * Scores every row of a metric table
+     * @param termColumns Score columns shared with other functions scoring the same table, or null
      */
-    private double calculateComponentScore(double rawValue, ScoringComponent component, MetricStats stats) {
-        // Step 1: Apply mapping function to convert to positive inflective form
-        double mappedValue = applyMappingFunction(rawValue, component.getMappingFunction(), component.isInvertBetter());
-        
-        // Step 2: Apply threshold penalty if configured
-        double finalValue = applyThresholdPenalty(rawValue, mappedValue, component);
-        
-        return finalValue;
+    ScoredRows scoreRows(MetricTable table, Map<ScoringTerm, double[]> termColumns) {
+        double[][] rawColumns = new double[terms.length][];
+        double[][] scoreColumns = new double[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            ScoringTerm term = terms[i];
+            rawColumns[i] = table.column(term.getMetric());
+            double[] raw = rawColumns[i];
+            scoreColumns[i] = termColumns != null
+                ? termColumns.computeIfAbsent(term, t -> t.score(raw))
+                : term.score(raw);
+        }
+        boolean[] qualified = findQualifiedRows(rawColumns, table.size());
+        double[] totalScores = calculateTotalScores(scoreColumns, qualified);
+        return new ScoredRows(rawColumns, scoreColumns, qualified, totalScores);
     }
     
     /**
-     * Applies mapping function to convert metric to positive inflective form
+     * Creates the results of the best rows in rank order
+     * @param limit Maximum number of results, or 0 for all rows
      */
-    private double applyMappingFunction(double value, String function, boolean invertBetter) {
-        if (invertBetter) {
-            // For "lower is better" metrics, invert before applying function
-            value = 1.0 / (1.0 + value);
+    List<ScoringResult> rank(MetricTable table, ScoredRows scored, int limit) {
+        List<Integer> rankedRows;
+        if (limit <= 0 || limit >= table.size()) {
+            rankedRows = new ArrayList<>(table.size());
+            for (int row = 0; row < table.size(); row++) {
+                rankedRows.add(row);
+            }
+        } else {
+            // The head of the heap is the lowest ranked of the systems kept so far
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> scored.compareRank(b, a));
+            for (int row = 0; row < table.size(); row++) {
+                if (heap.size() < limit) {
+                    heap.add(row);
+                } else if (scored.compareRank(row, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(row);
+                }
+            }
+            rankedRows = new ArrayList<>(heap);
         }
+        rankedRows.sort(scored::compareRank);
         
-        switch (function.toLowerCase()) {
-            case "log":
-                return Math.log(1.0 + value);
-            case "inverse":
-                return 1.0 / (1.0 + value);
-            case "threshold":
-                return value > 0 ? 1.0 : 0.0;
-            case "linear":
-            default:
-                return value;
+        List<ScoringResult> results = new ArrayList<>(rankedRows.size());
+        for (int row : rankedRows) {
+            results.add(createResult(table, scored, row));
+        }
+        return results;
+    }
+    
+    private ScoringResult createResult(MetricTable table, ScoredRows scored, int row) {
+        if (scored.qualified[row]) {
+            return createScoredResult(table.getSystemName(row), row, scored.rawColumns, scored.scoreColumns, scored.totalScores[row]);
         }
+        return createDisqualifiedResult(table.getSystemName(row), row, scored.rawColumns);
     }
     
     /**
-     * Applies normalization to bring metrics into [0, 1] scale
+     * Marks the systems qualified for ranking (all required metrics have non-zero values)
      */
-    private double applyNormalization(double value, String normalization, MetricStats stats) {
-        switch (normalization.toLowerCase()) {
-            case "minmax":
-                if (stats.range == 0) return 0.5; // All values are the same
-                return (value - stats.min) / stats.range;
-            case "zscore":
-                if (stats.stdDev == 0) return 0.5; // All values are the same
-                double zscore = (value - stats.mean) / stats.stdDev;
-                // Convert z-score to [0, 1] using sigmoid
-                return 1.0 / (1.0 + Math.exp(-zscore));
-            case "none":
-            default:
-                return value;
+    private boolean[] findQualifiedRows(double[][] rawColumns, int rows) {
+        boolean[] qualified = new boolean[rows];
+        Arrays.fill(qualified, true);
+        for (double[] raw : rawColumns) {
+            for (int row = 0; row < rows; row++) {
+                if (raw[row] == 0.0) {
+                    qualified[row] = false; // Missing or zero metric disqualifies the system
+                }
+            }
         }
+        return qualified;
     }
     
     /**
-     * Applies threshold penalty if conditions are triggered
+     * Calculates the weighted geometric product of the component scores of every qualified
+     * system as a sum of logarithms; disqualified systems score 0. exp(sum of w * log(s)) can
+     * differ from the multiplied-out product of s^w in the last digits (about 1e-16 relative),
+     * far below the precision reports print; non-positive scores fall back to the product.
      */
-    private double applyThresholdPenalty(double rawValue, double mappedValue, ScoringComponent component) {
-        if (component.getThresholdValue() == null) {
-            return mappedValue;
-        }
-        
-        boolean thresholdTriggered;
-        if (component.isInvertBetter()) {
-            // For "lower is better", trigger if value exceeds threshold
-            thresholdTriggered = rawValue > component.getThresholdValue();
-        } else {
-            // For "higher is better", trigger if value is below threshold
-            thresholdTriggered = rawValue < component.getThresholdValue();
+    private double[] calculateTotalScores(double[][] scoreColumns, boolean[] qualified) {
+        int rows = qualified.length;
+        double[] logScores = new double[rows];
+        List<ScoringComponent> components = configuration.getComponents();
+        for (int i = 0; i < scoreColumns.length; i++) {
+            double weight = components.get(i).getWeight();
+            double[] scores = scoreColumns[i];
+            for (int row = 0; row < rows; row++) {
+                logScores[row] += weight * Math.log(scores[row]);
+            }
         }
         
-        if (thresholdTriggered) {
-            return mappedValue * component.getThresholdPenalty();
+        double[] totalScores = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            if (!qualified[row]) {
+                continue;
+            }
+            if (Double.isNaN(logScores[row])) {
+                // Non-positive component scores have no logarithm, multiply them out instead
+                double product = 1.0;
+                for (int i = 0; i < scoreColumns.length; i++) {
+                    product *= Math.pow(scoreColumns[i][row], components.get(i).getWeight());
+                }
+                totalScores[row] = product;
+            } else {
+                totalScores[row] = Math.exp(logScores[row]);
+            }
         }
-        
-        return mappedValue;
+        return totalScores;
     }
     
     /**
-     * Extracts metric values from all systems for normalization
-     * Applies mapping function to get values in the same space for normalization
+     * Calculates the total score of one qualified system from its component scores, with the
+     * same arithmetic as calculateTotalScores
      */
-    private Map<String, List<Double>> extractMetricValues(List<SystemMetrics> systems) {
-        Map<String, List<Double>> metricValues = new HashMap<>();
-        
-        for (ScoringComponent component : configuration.getComponents()) {
-            List<Double> values = new ArrayList<>();
-            for (SystemMetrics system : systems) {
-                double rawValue = extractMetricValue(system, component.getMetricName());
-                // All systems passed here should be qualified (non-zero values)
-                // Apply mapping function to get values in comparable space
-                double mappedValue = applyMappingFunction(rawValue, component.getMappingFunction(), component.isInvertBetter());
-                values.add(mappedValue);
+    double totalScore(double[] componentScores) {
+        List<ScoringComponent> components = configuration.getComponents();
+        double logScore = 0.0;
+        for (int i = 0; i < componentScores.length; i++) {
+            logScore += components.get(i).getWeight() * Math.log(componentScores[i]);
+        }
+        if (Double.isNaN(logScore)) {
+            double product = 1.0;
+            for (int i = 0; i < componentScores.length; i++) {
+                product *= Math.pow(componentScores[i], components.get(i).getWeight());
             }
-            metricValues.put(component.getMetricName(), values);
+            return product;
         }
-        
-        return metricValues;
+        return Math.exp(logScore);
+    }
+    
+    /**
+     * Compiled term of each component, by index; the array must not be modified
+     */
+    ScoringTerm[] getTerms() {
+        return terms;
+    }
+    
+    /**
+     * Creates a result from the scoring inputs of one system; its breakdown is rendered on demand
+     */
+    ScoringResult createResult(String systemName, double totalScore, double[] componentValues, double[] rawValues,
+                               boolean disqualified) {
+        return new ScoringResult(systemName, totalScore, configuration.getComponents(), componentValues, rawValues, disqualified);
     }
     
     /**
-     * Extracts a specific metric value from SystemMetrics using reflection-like approach
+     * Creates the result for a qualified system; its scoring breakdown is rendered on demand
      */
-    private double extractMetricValue(SystemMetrics system, String metricName) {
-        switch (metricName.toLowerCase()) {
-            case "optimal_throughput_mbps":
-                return system.getRandreadThroughputMBps();
-            case "optimal_throughput_gbps":
-                return system.getRandreadThroughputMBps() / 1024.0;
-            case "optimal_iops":
-                return system.getRandreadIOPS();
-            case "optimal_latency_mean_ms":
-            case "optimal_latency_mean_us":
-                return system.getRandreadLatencyMeanUs();
-            case "optimal_latency_p50_ms":
-            case "optimal_latency_p50_us":
-                return system.getRandreadLatencyP50Us();
-            case "optimal_latency_p95_ms":
-            case "optimal_latency_p95_us":
-                return system.getRandreadLatencyP95Us();
-            case "optimal_latency_p99_ms":
-            case "optimal_latency_p99_us":
-                return system.getRandreadLatencyP99Us();
-            case "optimal_latency_p99_p50_ratio":
-                return system.getRandreadLatencyP99P50Ratio();
-            case "knee_point_latency_increase_percent":
-                return system.getKneePointLatencyIncreasePercent();
-            // Direct access to component metrics from optimal mixed workload
-            case "randread_throughput_mbps":
-                return system.getRandreadThroughputMBps();
-            case "randread_iops":
-                return system.getRandreadIOPS();
-            case "randread_latency_mean_ms":
-            case "randread_latency_mean_us":
-                return system.getRandreadLatencyMeanUs();
-            case "randread_latency_p50_ms":
-            case "randread_latency_p50_us":
-                return system.getRandreadLatencyP50Us();
-            case "randread_latency_p95_ms":
-            case "randread_latency_p95_us":
-                return system.getRandreadLatencyP95Us();
-            case "randread_latency_p99_ms":
-            case "randread_latency_p99_us":
-                return system.getRandreadLatencyP99Us();
-            case "randread_latency_p99_p50_ratio":
-                return system.getRandreadLatencyP99P50Ratio();
-            case "seqread_throughput_mbps":
-                return system.getSeqreadThroughputMBps();
-            case "seqwrite_throughput_mbps":
-                return system.getSeqwriteThroughputMBps();
-            case "optimal_stream_limit_mbps":
-                return system.getOptimalStreamLimitMBps();
-            case "total_workloads":
-                return system.getTotalWorkloads();
-            default:
-                return 0.0;
+    private ScoringResult createScoredResult(String systemName, int row, double[][] rawColumns, double[][] scoreColumns, double totalScore) {
+        double[] componentValues = new double[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            componentValues[i] = scoreColumns[i][row];
         }
+        return new ScoringResult(systemName, totalScore, configuration.getComponents(), componentValues,
+            rowValues(rawColumns, row), false);
     }
     
     /**
-     * Calculates statistics for normalization
+     * Creates a result for a disqualified system; its explanation is rendered on demand
      */
-    private Map<String, MetricStats> calculateMetricStats(Map<String, List<Double>> metricValues) {
-        Map<String, MetricStats> stats = new HashMap<>();
-        
-        for (Map.Entry<String, List<Double>> entry : metricValues.entrySet()) {
-            List<Double> values = entry.getValue();
-            if (values.isEmpty()) continue;
-            
-            double min = values.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
-            double max = values.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-            double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            
-            double variance = values.stream()
-                .mapToDouble(v -> Math.pow(v - mean, 2))
-                .average().orElse(0.0);
-            double stdDev = Math.sqrt(variance);
-            
-            stats.put(entry.getKey(), new MetricStats(min, max, mean, stdDev));
+    private ScoringResult createDisqualifiedResult(String systemName, int row, double[][] rawColumns) {
+        // All component scores are 0
+        return new ScoringResult(systemName, 0.0, configuration.getComponents(), new double[terms.length],
+            rowValues(rawColumns, row), true);
+    }
+    
+    private static double[] rowValues(double[][] columns, int row) {
+        double[] values = new double[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i][row];
         }
-        
-        return stats;
+        return values;
     }
     
     /**
-     * Statistics for a metric
+     * Per-row scoring state of one metric table
      */
-    private static class MetricStats {
-        final double min, max, mean, stdDev, range;
-        
-        MetricStats(double min, double max, double mean, double stdDev) {
-            this.min = min;
-            this.max = max;
-            this.mean = mean;
-            this.stdDev = stdDev;
-            this.range = max - min;
+    static final class ScoredRows {
+        final double[][] rawColumns;
+        final double[][] scoreColumns;
+        final boolean[] qualified;
+        final double[] totalScores;
+        
+        ScoredRows(double[][] rawColumns, double[][] scoreColumns, boolean[] qualified, double[] totalScores) {
+            this.rawColumns = rawColumns;
+            this.scoreColumns = scoreColumns;
+            this.qualified = qualified;
+            this.totalScores = totalScores;
+        }
+        
+        /**
+         * Total score of each row, 0 for disqualified systems
+         */
+        double[] getTotalScores() {
+            return totalScores;
+        }
+        
+        /**
+         * Orders rows as scoreAndRankSystems does: by descending score, ties keeping qualified
+         * systems first and then table order
+         */
+        int compareRank(int a, int b) {
+            int byScore = Double.compare(totalScores[b], totalScores[a]);
+            if (byScore != 0) {
+                return byScore;
+            }
+            return Integer.compare(position(a), position(b));
+        }
+        
+        private int position(int row) {
+            return qualified[row] ? row : qualified.length + row;
         }
     }
     
+    /**
+     * Returns a copy of the configuration this function was compiled from
+     */
     public ScoringConfiguration getConfiguration() {
-        return configuration;
+        return configuration.copy();
     }
 }
\ No newline at end of file
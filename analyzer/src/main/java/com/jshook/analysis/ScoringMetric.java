@@ -0,0 +1,90 @@
+package com.jshook.analysis;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The SystemMetrics values that ranking function components can refer to.
+ *
+ * Each metric is reachable under one or more names from ranking-functions.json (the optimal_*
+ * names and the _ms latency spellings are aliases of the randread values). Component metric names
+ * are resolved once when a ScoringFunction is compiled, so scoring reads values through a direct
+ * accessor instead of matching strings.
+ */
+public enum ScoringMetric {
+    RANDREAD_THROUGHPUT_MBPS(SystemMetrics::getRandreadThroughputMBps,
+        "randread_throughput_mbps", "optimal_throughput_mbps"),
+    RANDREAD_THROUGHPUT_GBPS(system -> system.getRandreadThroughputMBps() / 1024.0,
+        "optimal_throughput_gbps"),
+    RANDREAD_IOPS(SystemMetrics::getRandreadIOPS,
+        "randread_iops", "optimal_iops"),
+    RANDREAD_LATENCY_MEAN_US(SystemMetrics::getRandreadLatencyMeanUs,
+        "randread_latency_mean_us", "randread_latency_mean_ms", "optimal_latency_mean_us", "optimal_latency_mean_ms"),
+    RANDREAD_LATENCY_P50_US(SystemMetrics::getRandreadLatencyP50Us,
+        "randread_latency_p50_us", "randread_latency_p50_ms", "optimal_latency_p50_us", "optimal_latency_p50_ms"),
+    RANDREAD_LATENCY_P95_US(SystemMetrics::getRandreadLatencyP95Us,
+        "randread_latency_p95_us", "randread_latency_p95_ms", "optimal_latency_p95_us", "optimal_latency_p95_ms"),
+    RANDREAD_LATENCY_P99_US(SystemMetrics::getRandreadLatencyP99Us,
+        "randread_latency_p99_us", "randread_latency_p99_ms", "optimal_latency_p99_us", "optimal_latency_p99_ms"),
+    RANDREAD_LATENCY_P99_P50_RATIO(SystemMetrics::getRandreadLatencyP99P50Ratio,
+        "randread_latency_p99_p50_ratio", "optimal_latency_p99_p50_ratio"),
+    AGGREGATE_THROUGHPUT_MBPS(SystemMetrics::getAggregateThroughputMBps,
+        "aggregate_throughput_mbps"),
+    AGGREGATE_IOPS(SystemMetrics::getAggregateIOPS,
+        "aggregate_iops"),
+    AGGREGATE_LATENCY_MEAN_MS(SystemMetrics::getAggregateLatencyMeanMs,
+        "aggregate_latency_mean_ms"),
+    AGGREGATE_LATENCY_P50_MS(SystemMetrics::getAggregateLatencyP50Ms,
+        "aggregate_latency_p50_ms"),
+    AGGREGATE_LATENCY_P95_MS(SystemMetrics::getAggregateLatencyP95Ms,
+        "aggregate_latency_p95_ms"),
+    AGGREGATE_LATENCY_P99_MS(SystemMetrics::getAggregateLatencyP99Ms,
+        "aggregate_latency_p99_ms"),
+    KNEE_POINT_LATENCY_INCREASE_PERCENT(SystemMetrics::getKneePointLatencyIncreasePercent,
+        "knee_point_latency_increase_percent"),
+    SEQREAD_THROUGHPUT_MBPS(SystemMetrics::getSeqreadThroughputMBps,
+        "seqread_throughput_mbps"),
+    SEQWRITE_THROUGHPUT_MBPS(SystemMetrics::getSeqwriteThroughputMBps,
+        "seqwrite_throughput_mbps"),
+    OPTIMAL_STREAM_LIMIT_MBPS(SystemMetrics::getOptimalStreamLimitMBps,
+        "optimal_stream_limit_mbps"),
+    TOTAL_WORKLOADS(SystemMetrics::getTotalWorkloads,
+        "total_workloads");
+
+    private static final Map<String, ScoringMetric> BY_NAME = new HashMap<>();
+
+    static {
+        for (ScoringMetric metric : values()) {
+            for (String name : metric.names) {
+                BY_NAME.put(name, metric);
+            }
+        }
+    }
+
+    private final ToDoubleFunction<SystemMetrics> accessor;
+    private final String[] names;
+
+    ScoringMetric(ToDoubleFunction<SystemMetrics> accessor, String... names) {
+        this.accessor = accessor;
+        this.names = names;
+    }
+
+    /**
+     * Reads this metric from a system
+     */
+    public double valueOf(SystemMetrics system) {
+        return accessor.applyAsDouble(system);
+    }
+
+    /**
+     * Resolves a metric name from a ranking function definition (case-insensitive)
+     * @throws IllegalArgumentException If no metric is known under that name
+     */
+    public static ScoringMetric forName(String metricName) {
+        ScoringMetric metric = metricName != null ? BY_NAME.get(metricName.toLowerCase()) : null;
+        if (metric == null) {
+            throw new IllegalArgumentException("Unknown metric '" + metricName + "'");
+        }
+        return metric;
+    }
+}
@@ -0,0 +1,233 @@
+package com.jshook.analysis;
+
+import java.util.Objects;
+
+/**
+ * The part of a scoring component that turns a raw metric column into component scores:
+ * the metric, its direction, the mapping function, the normalization and the threshold penalty.
+ *
+ * Terms are value objects, so components of different ranking functions that compute the same
+ * thing (e.g. randread_throughput_mbps with linear mapping) are equal and can share one computed
+ * score column. The component weight is not part of the term.
+ */
+final class ScoringTerm {
+
+    /**
+     * Mapping functions a component can apply
+     */
+    enum Mapping {
+        LINEAR, LOG, INVERSE, THRESHOLD;
+
+        static Mapping forName(String function) {
+            switch (function.toLowerCase()) {
+                case "log":
+                    return LOG;
+                case "inverse":
+                    return INVERSE;
+                case "threshold":
+                    return THRESHOLD;
+                case "linear":
+                default:
+                    return LINEAR;
+            }
+        }
+    }
+
+    /**
+     * Normalizations a component can apply to its mapped values
+     */
+    enum Normalization {
+        NONE, MINMAX, ZSCORE;
+
+        static Normalization forName(String normalization) {
+            switch (normalization.toLowerCase()) {
+                case "minmax":
+                    return MINMAX;
+                case "zscore":
+                    return ZSCORE;
+                case "none":
+                default:
+                    return NONE;
+            }
+        }
+    }
+
+    private final ScoringMetric metric;
+    private final boolean invertBetter;
+    private final Mapping mapping;
+    private final Normalization normalization;
+    private final Double thresholdValue;
+    private final double thresholdPenalty;
+
+    ScoringTerm(ScoringFunction.ScoringComponent component) {
+        this.metric = ScoringMetric.forName(component.getMetricName());
+        this.invertBetter = component.isInvertBetter();
+        this.mapping = Mapping.forName(component.getMappingFunction());
+        this.normalization = Normalization.forName(component.getNormalization());
+        this.thresholdValue = component.getThresholdValue();
+        // The penalty only matters with a threshold; ignoring it otherwise lets more terms match
+        this.thresholdPenalty = thresholdValue != null ? component.getThresholdPenalty() : 0.0;
+    }
+
+    ScoringMetric getMetric() {
+        return metric;
+    }
+
+    Normalization getNormalization() {
+        return normalization;
+    }
+
+    /**
+     * Calculates the score of this term for every system: inversion for "lower is better"
+     * metrics, the mapping function, the normalization over all systems reporting the metric,
+     * then the threshold penalty if configured
+     */
+    double[] score(double[] raw) {
+        double[] scores = map(raw);
+        MetricStats stats = normalization != Normalization.NONE ? mappedStats(raw, scores) : null;
+        return finish(raw, scores, stats);
+    }
+
+    /**
+     * Calculates the score of this term for every system against previously collected stats
+     * of the mapped values, e.g. stats that are updated as systems are added
+     */
+    double[] score(double[] raw, MetricStats stats) {
+        return finish(raw, map(raw), stats);
+    }
+
+    /**
+     * Collects the stats of the mapped values of all systems reporting the metric in one pass;
+     * systems without the metric (raw value 0) are disqualified and do not count
+     */
+    MetricStats stats(double[] raw) {
+        return mappedStats(raw, map(raw));
+    }
+
+    /**
+     * Applies the inversion and the mapping function to the value of one system, with the same
+     * arithmetic as the column version
+     */
+    double map(double raw) {
+        double value = invertBetter ? 1.0 / (1.0 + raw) : raw;
+        switch (mapping) {
+            case LOG:
+                return Math.log(1.0 + value);
+            case INVERSE:
+                return 1.0 / (1.0 + value);
+            case THRESHOLD:
+                return value > 0 ? 1.0 : 0.0;
+            case LINEAR:
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Calculates the score of one system from its raw value and mapped value
+     * @param stats Stats of the mapped values of all systems, or null without normalization
+     */
+    double score(double raw, double mapped, MetricStats stats) {
+        double score = mapped;
+        if (stats != null && normalization != Normalization.NONE) {
+            score = stats.normalize(score, normalization);
+        }
+        if (thresholdValue != null) {
+            boolean thresholdTriggered = invertBetter ? raw > thresholdValue : raw < thresholdValue;
+            if (thresholdTriggered) {
+                score *= thresholdPenalty;
+            }
+        }
+        return score;
+    }
+
+    private static MetricStats mappedStats(double[] raw, double[] mapped) {
+        MetricStats stats = new MetricStats();
+        for (int row = 0; row < raw.length; row++) {
+            if (raw[row] != 0.0) {
+                stats.add(mapped[row]);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Applies the inversion and the mapping function
+     */
+    private double[] map(double[] raw) {
+        int rows = raw.length;
+        double[] scores = new double[rows];
+
+        if (invertBetter) {
+            for (int row = 0; row < rows; row++) {
+                scores[row] = 1.0 / (1.0 + raw[row]);
+            }
+        } else {
+            System.arraycopy(raw, 0, scores, 0, rows);
+        }
+
+        switch (mapping) {
+            case LOG:
+                for (int row = 0; row < rows; row++) {
+                    scores[row] = Math.log(1.0 + scores[row]);
+                }
+                break;
+            case INVERSE:
+                for (int row = 0; row < rows; row++) {
+                    scores[row] = 1.0 / (1.0 + scores[row]);
+                }
+                break;
+            case THRESHOLD:
+                for (int row = 0; row < rows; row++) {
+                    scores[row] = scores[row] > 0 ? 1.0 : 0.0;
+                }
+                break;
+            case LINEAR:
+            default:
+                break;
+        }
+        return scores;
+    }
+
+    /**
+     * Normalizes the mapped values in place and applies the threshold penalty
+     */
+    private double[] finish(double[] raw, double[] scores, MetricStats stats) {
+        int rows = raw.length;
+        if (stats != null && normalization != Normalization.NONE) {
+            for (int row = 0; row < rows; row++) {
+                scores[row] = stats.normalize(scores[row], normalization);
+            }
+        }
+
+        if (thresholdValue != null) {
+            double threshold = thresholdValue;
+            for (int row = 0; row < rows; row++) {
+                // "Lower is better" triggers above the threshold, "higher is better" below it
+                boolean thresholdTriggered = invertBetter ? raw[row] > threshold : raw[row] < threshold;
+                if (thresholdTriggered) {
+                    scores[row] *= thresholdPenalty;
+                }
+            }
+        }
+        return scores;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ScoringTerm)) return false;
+        ScoringTerm other = (ScoringTerm) o;
+        return metric == other.metric
+            && invertBetter == other.invertBetter
+            && mapping == other.mapping
+            && normalization == other.normalization
+            && Objects.equals(thresholdValue, other.thresholdValue)
+            && Double.compare(thresholdPenalty, other.thresholdPenalty) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(metric, invertBetter, mapping, normalization, thresholdValue, thresholdPenalty);
+    }
+}
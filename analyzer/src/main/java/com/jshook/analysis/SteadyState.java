@@ -0,0 +1,302 @@
+package com.jshook.analysis;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Whether a workload ran in steady state, and if it only settled after a warm-up, its fio result
+ * recomputed over the steady window.
+ *
+ * Time-based runs include SSD warm-up and SLC-cache exhaustion, which distort the bw and clat
+ * averages fio reports for the whole run. When the workload has fio logs, the per-window means of
+ * its bw log (or iops, clat or lat log) are scanned for the earliest start after which, in the
+ * style of the SNIA SSS PTS steady-state rule, every window stays within MAX_EXCURSION of the
+ * average and the linear trend drifts by at most MAX_DRIFT over the window. The steady window must
+ * cover at least half of the run. Without logs, the spread of fio's own bw and iops samples
+ * (bw_dev / bw_mean, iops_stddev / iops_mean) is compared against MAX_EXCURSION instead; that tells
+ * steady from unsteady runs but not where the warm-up ends, so nothing is trimmed.
+ */
+public final class SteadyState {
+
+    /** Largest deviation of a window mean (or sample coefficient of variation) from the average */
+    public static final double MAX_EXCURSION = 0.20;
+
+    /** Largest change of the linear trend over the steady window, relative to the average */
+    public static final double MAX_DRIFT = 0.10;
+
+    private static final int MIN_WINDOWS = 5;
+    private static final int MIN_SAMPLES = 3;
+
+    public enum Status { STEADY, UNSTEADY, UNKNOWN }
+
+    private final Status status;
+    private final String basis;
+    private final long warmupMillis;
+    private final String detail;
+    private final FioResult trimmedResult;
+
+    private SteadyState(Status status, String basis, long warmupMillis, String detail, FioResult trimmedResult) {
+        this.status = status;
+        this.basis = basis;
+        this.warmupMillis = warmupMillis;
+        this.detail = detail;
+        this.trimmedResult = trimmedResult;
+    }
+
+    public Status getStatus() { return status; }
+
+    /**
+     * What the status is based on, e.g. "bw log" or "bw/iops samples"
+     */
+    public String getBasis() { return basis; }
+
+    /**
+     * Time before the steady window in milliseconds, 0 if the whole run was steady or no logs
+     * were available
+     */
+    public long getWarmupMillis() { return warmupMillis; }
+
+    public String getDetail() { return detail; }
+
+    /**
+     * The fio result with bw, iops and clat recomputed over the steady window, or null if nothing
+     * was trimmed
+     */
+    public FioResult getTrimmedResult() { return trimmedResult; }
+
+    /**
+     * Detects the steady state of one workload
+     * @param timeSeries The workload's fio logs, or null if it has none
+     */
+    public static SteadyState detect(FioResult fioResult, WorkloadTimeSeries timeSeries) {
+        if (timeSeries != null) {
+            for (WorkloadTimeSeries.Log log : Arrays.asList(WorkloadTimeSeries.Log.BW, WorkloadTimeSeries.Log.IOPS,
+                                                            WorkloadTimeSeries.Log.CLAT, WorkloadTimeSeries.Log.LAT)) {
+                TimeSeries series = timeSeries.get(log);
+                if (series != null && nonEmptyWindows(series).length >= MIN_WINDOWS) {
+                    return fromLog(fioResult, timeSeries, log, series);
+                }
+            }
+        }
+        return fromSamples(fioResult);
+    }
+
+    private static SteadyState fromLog(FioResult fioResult, WorkloadTimeSeries timeSeries,
+                                       WorkloadTimeSeries.Log log, TimeSeries series) {
+        String basis = log.getSuffix() + " log";
+        int[] windows = nonEmptyWindows(series);
+        int minimum = Math.max(MIN_WINDOWS, (windows.length + 1) / 2);
+        for (int start = 0; start + minimum <= windows.length; start++) {
+            double[] variation = variation(series, windows, start);
+            if (variation[0] <= MAX_EXCURSION && variation[1] <= MAX_DRIFT) {
+                long warmupMillis = windows[start] * series.getWindowMillis();
+                String detail = String.format("windows within %.0f%% of mean, drift %.0f%%", variation[0] * 100, variation[1] * 100);
+                if (warmupMillis == 0) {
+                    return new SteadyState(Status.STEADY, basis, 0, detail + " over the whole run", null);
+                }
+                return new SteadyState(Status.STEADY, basis, warmupMillis,
+                    detail + String.format(" after %.1f s warm-up", warmupMillis / 1000.0), trim(fioResult, timeSeries, warmupMillis));
+            }
+        }
+        double[] variation = variation(series, windows, 0);
+        return new SteadyState(Status.UNSTEADY, basis, 0,
+            String.format("windows up to %.0f%% from mean, drift %.0f%%", variation[0] * 100, variation[1] * 100), null);
+    }
+
+    private static SteadyState fromSamples(FioResult fioResult) {
+        double largest = -1.0;
+        for (FioResult.FioMetrics direction : directions(fioResult)) {
+            if (direction.getBandwidthSamples() >= MIN_SAMPLES && direction.getBandwidthMean() > 0) {
+                largest = Math.max(largest, direction.getBandwidthDeviation() / direction.getBandwidthMean());
+            }
+            if (direction.getIopsSamples() >= MIN_SAMPLES && direction.getIopsMean() > 0) {
+                largest = Math.max(largest, direction.getIopsDeviation() / direction.getIopsMean());
+            }
+        }
+        if (largest < 0) {
+            return new SteadyState(Status.UNKNOWN, "none", 0, "no fio logs or bw/iops samples", null);
+        }
+        String detail = String.format("sample CV up to %.1f%%", largest * 100);
+        return new SteadyState(largest <= MAX_EXCURSION ? Status.STEADY : Status.UNSTEADY, "bw/iops samples", 0, detail, null);
+    }
+
+    /**
+     * Largest relative excursion of a window mean from the average, and relative drift of the
+     * least-squares trend, over the non-empty windows from index start on
+     */
+    private static double[] variation(TimeSeries series, int[] windows, int start) {
+        int n = windows.length - start;
+        double sumX = 0.0;
+        double sumY = 0.0;
+        for (int i = start; i < windows.length; i++) {
+            sumX += windows[i];
+            sumY += series.getMean(windows[i]);
+        }
+        double averageX = sumX / n;
+        double average = sumY / n;
+        if (average <= 0) {
+            return new double[] {0.0, 0.0};
+        }
+        double excursion = 0.0;
+        double covariance = 0.0;
+        double variance = 0.0;
+        for (int i = start; i < windows.length; i++) {
+            double y = series.getMean(windows[i]);
+            excursion = Math.max(excursion, Math.abs(y - average));
+            covariance += (windows[i] - averageX) * (y - average);
+            variance += (windows[i] - averageX) * (windows[i] - averageX);
+        }
+        double slope = variance > 0 ? covariance / variance : 0.0;
+        double drift = Math.abs(slope * (windows[windows.length - 1] - windows[start]));
+        return new double[] {excursion / average, drift / average};
+    }
+
+    private static int[] nonEmptyWindows(TimeSeries series) {
+        return IntStream.range(0, series.size()).filter(i -> series.getCount(i) > 0).toArray();
+    }
+
+    /**
+     * Copies a fio result with bw, iops and clat recomputed over the steady window. Logs pool all
+     * jobs, so with several jobs or directions each one's figures are scaled by the ratio of the
+     * steady to the whole-run log, which keeps the split between jobs of mixed workloads. With a
+     * single job and direction the clat log is that direction's own distribution, and its steady
+     * window is taken as is. io_bytes, total_ios and runtime shrink to the steady window, so bw
+     * and iops stay consistent with them. Figures without a matching log are kept.
+     */
+    private static FioResult trim(FioResult fioResult, WorkloadTimeSeries timeSeries, long warmupMillis) {
+        double bandwidthRatio = meanRatio(timeSeries.get(WorkloadTimeSeries.Log.BW), warmupMillis);
+        double iopsRatio = meanRatio(timeSeries.get(WorkloadTimeSeries.Log.IOPS), warmupMillis);
+        // At a fixed block size bandwidth and IOPS move together, so one log stands in for the other
+        if (Double.isNaN(bandwidthRatio)) bandwidthRatio = iopsRatio;
+        if (Double.isNaN(iopsRatio)) iopsRatio = bandwidthRatio;
+        TimeSeries clat = timeSeries.get(WorkloadTimeSeries.Log.CLAT);
+        boolean singleDirection = directions(fioResult).stream().filter(SteadyState::hasIo).count() == 1;
+
+        FioResult trimmed = new FioResult();
+        trimmed.setFioVersion(fioResult.getFioVersion());
+        trimmed.setTimestamp(fioResult.getTimestamp());
+        if (fioResult.getJobs() != null) {
+            List<FioResult.FioJob> jobs = new ArrayList<>();
+            for (FioResult.FioJob job : fioResult.getJobs()) {
+                if (job == null) {
+                    jobs.add(null);
+                    continue;
+                }
+                FioResult.FioJob trimmedJob = new FioResult.FioJob();
+                trimmedJob.setJobname(job.getJobname());
+                trimmedJob.setRead(trim(job.getRead(), bandwidthRatio, iopsRatio, clat, singleDirection, warmupMillis));
+                trimmedJob.setWrite(trim(job.getWrite(), bandwidthRatio, iopsRatio, clat, singleDirection, warmupMillis));
+                jobs.add(trimmedJob);
+            }
+            trimmed.setJobs(jobs);
+        }
+        return trimmed;
+    }
+
+    /**
+     * @param singleDirection Whether the clat log holds only this direction's I/Os
+     */
+    private static FioResult.FioMetrics trim(FioResult.FioMetrics direction, double bandwidthRatio, double iopsRatio,
+                                             TimeSeries clat, boolean singleDirection, long warmupMillis) {
+        if (direction == null) {
+            return null;
+        }
+        FioResult.FioMetrics trimmed = new FioResult.FioMetrics();
+        trimmed.setBandwidth(Double.isNaN(bandwidthRatio) ? direction.getBandwidth() : direction.getBandwidth() * bandwidthRatio);
+        trimmed.setIops(Double.isNaN(iopsRatio) ? direction.getIops() : direction.getIops() * iopsRatio);
+        if (direction.getRuntime() > 0) {
+            // bw = io_bytes / runtime and iops = total_ios / runtime hold over the steady window too
+            long runtime = Math.max(0, direction.getRuntime() - warmupMillis);
+            double fraction = (double) runtime / direction.getRuntime();
+            trimmed.setRuntime(runtime);
+            trimmed.setIoBytes(Math.round(direction.getIoBytes() * fraction * (Double.isNaN(bandwidthRatio) ? 1.0 : bandwidthRatio)));
+            trimmed.setTotalIos(Math.round(direction.getTotalIos() * fraction * (Double.isNaN(iopsRatio) ? 1.0 : iopsRatio)));
+        } else {
+            trimmed.setIoBytes(direction.getIoBytes());
+            trimmed.setTotalIos(direction.getTotalIos());
+        }
+        trimmed.setBandwidthMean(direction.getBandwidthMean());
+        trimmed.setBandwidthDeviation(direction.getBandwidthDeviation());
+        trimmed.setBandwidthSamples(direction.getBandwidthSamples());
+        trimmed.setIopsMean(direction.getIopsMean());
+        trimmed.setIopsDeviation(direction.getIopsDeviation());
+        trimmed.setIopsSamples(direction.getIopsSamples());
+
+        FioResult.LatencyStats latency = direction.getCompletionLatency();
+        if (latency == null || clat == null) {
+            trimmed.setCompletionLatency(latency);
+            return trimmed;
+        }
+        int first = firstWindow(clat, warmupMillis);
+        LatencyHistogram steady = clat.getHistogram(first, clat.size());
+        boolean measured = singleDirection && steady.getTotalCount() > 0;
+        LatencyHistogram whole = measured ? null : clat.getHistogram(0, clat.size());
+        FioResult.LatencyStats trimmedLatency = new FioResult.LatencyStats();
+        double wholeMean = clat.getMean(0, clat.size());
+        if (measured) {
+            trimmedLatency.setMean(clat.getMean(first, clat.size()));
+        } else {
+            trimmedLatency.setMean(wholeMean > 0 ? latency.getMean() * clat.getMean(first, clat.size()) / wholeMean : latency.getMean());
+        }
+        if (latency.getPercentiles() != null) {
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (Map.Entry<String, Double> percentile : latency.getPercentiles().entrySet()) {
+                Double value = percentile.getValue();
+                try {
+                    double p = Double.parseDouble(percentile.getKey());
+                    if (measured) {
+                        value = steady.getValueAtPercentile(p);
+                    } else {
+                        double wholeValue = whole.getValueAtPercentile(p);
+                        if (value != null && wholeValue > 0) {
+                            value = value * steady.getValueAtPercentile(p) / wholeValue;
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    // Not a percentile key, kept as is
+                }
+                percentiles.put(percentile.getKey(), value);
+            }
+            trimmedLatency.setPercentiles(percentiles);
+        }
+        // json+ bins cover the whole run and cannot be trimmed; a single direction's log replaces them
+        trimmedLatency.setHistogram(measured ? steady : null);
+        trimmed.setCompletionLatency(trimmedLatency);
+        return trimmed;
+    }
+
+    /**
+     * Whether a direction did any I/O, e.g. the write side of a read-only job did not
+     */
+    private static boolean hasIo(FioResult.FioMetrics direction) {
+        return direction.getTotalIos() > 0 || direction.getIoBytes() > 0 || direction.getBandwidth() > 0;
+    }
+
+    /**
+     * Ratio of the steady-window mean to the whole-run mean of a log, NaN without the log
+     */
+    private static double meanRatio(TimeSeries series, long warmupMillis) {
+        if (series == null) {
+            return Double.NaN;
+        }
+        double whole = series.getMean(0, series.size());
+        return whole > 0 ? series.getMean(firstWindow(series, warmupMillis), series.size()) / whole : Double.NaN;
+    }
+
+    private static int firstWindow(TimeSeries series, long warmupMillis) {
+        return (int) Math.min(series.size() - 1, warmupMillis / series.getWindowMillis());
+    }
+
+    private static List<FioResult.FioMetrics> directions(FioResult fioResult) {
+        List<FioResult.FioMetrics> directions = new ArrayList<>();
+        if (fioResult != null && fioResult.getJobs() != null) {
+            for (FioResult.FioJob job : fioResult.getJobs()) {
+                if (job != null) {
+                    if (job.getRead() != null) directions.add(job.getRead());
+                    if (job.getWrite() != null) directions.add(job.getWrite());
+                }
+            }
+        }
+        return directions;
+    }
+}
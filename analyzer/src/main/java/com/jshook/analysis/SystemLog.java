@@ -0,0 +1,157 @@
+package com.jshook.analysis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Per-thread capture of console output, so that work running concurrently (such as the Stage 2
+ * analysis of several systems) can still log through System.out and System.err, and the output
+ * of each unit of work is printed as one block in a deterministic order.
+ *
+ * Between install() and uninstall(), System.out and System.err route writes into the buffer of
+ * the current thread while it runs inside capture(); all other threads write through to the
+ * original streams. Installations nest, and the original streams are restored by the last
+ * uninstall().
+ */
+final class SystemLog {
+
+    private static final ThreadLocal<Captured<?>> CURRENT = new ThreadLocal<>();
+    private static PrintStream originalOut; // Guarded by SystemLog.class
+    private static PrintStream originalErr;
+    private static int installations;
+
+    private SystemLog() {}
+
+    /**
+     * Routes System.out and System.err through the capturing streams until uninstall() is called
+     */
+    static synchronized void install() {
+        if (installations++ > 0) {
+            return;
+        }
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(new RoutingStream(originalOut, false), true));
+        System.setErr(new PrintStream(new RoutingStream(originalErr, true), true));
+    }
+
+    /**
+     * Undoes one install(); the last one restores the original streams
+     */
+    static synchronized void uninstall() {
+        if (installations == 0 || --installations > 0) {
+            return;
+        }
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        originalOut = null;
+        originalErr = null;
+    }
+
+    /**
+     * Runs the task with this thread's console output captured. Output is only captured while the
+     * routing streams are installed.
+     */
+    static <T> Captured<T> capture(Callable<T> task) {
+        Captured<T> captured = new Captured<>();
+        Captured<?> previous = CURRENT.get();
+        CURRENT.set(captured);
+        try {
+            captured.result = task.call();
+        } catch (Exception e) {
+            captured.failure = e;
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        return captured;
+    }
+
+    /**
+     * Output and outcome of one captured task. Output to both streams is kept in one buffer, as
+     * runs of bytes per stream in the order they were written.
+     */
+    static final class Captured<T> {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final List<int[]> runs = new ArrayList<>(); // {stream (1 = err), end offset}
+        private T result;
+        private Exception failure;
+
+        private void write(boolean errorStream, byte[] b, int off, int len) {
+            output.write(b, off, len);
+            int stream = errorStream ? 1 : 0;
+            int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last[0] == stream) {
+                last[1] = output.size();
+            } else {
+                runs.add(new int[] {stream, output.size()});
+            }
+        }
+
+        /**
+         * Writes the captured output to the console and returns the task's result
+         * @throws Exception The exception thrown by the task, if any
+         */
+        T replay() throws Exception {
+            synchronized (SystemLog.class) {
+                PrintStream out = originalOut != null ? originalOut : System.out;
+                PrintStream err = originalErr != null ? originalErr : System.err;
+                byte[] bytes = output.toByteArray();
+                int start = 0;
+                for (int[] run : runs) {
+                    PrintStream target = run[0] == 1 ? err : out;
+                    target.write(bytes, start, run[1] - start);
+                    target.flush();
+                    start = run[1];
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Sends bytes to the capturing thread's buffer, or to the original stream otherwise
+     */
+    private static final class RoutingStream extends OutputStream {
+        private final PrintStream original;
+        private final boolean errorStream;
+
+        RoutingStream(PrintStream original, boolean errorStream) {
+            this.original = original;
+            this.errorStream = errorStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Captured<?> captured = CURRENT.get();
+            if (captured == null) {
+                original.write(b, off, len);
+            } else {
+                captured.write(errorStream, b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (CURRENT.get() == null) {
+                original.flush();
+            }
+        }
+    }
+}
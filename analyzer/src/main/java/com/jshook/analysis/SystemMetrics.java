@@ -43,6 +43,25 @@ public class SystemMetrics {
     @JsonProperty("seqwrite_throughput_mbps")
     private double seqwriteThroughputMBps;
     
+    // Device-level aggregate of all jobs and directions of the optimal mixed workload
+    @JsonProperty("aggregate_throughput_mbps")
+    private double aggregateThroughputMBps;
+    
+    @JsonProperty("aggregate_iops")
+    private double aggregateIOPS;
+    
+    @JsonProperty("aggregate_latency_mean_ms")
+    private double aggregateLatencyMeanMs;
+    
+    @JsonProperty("aggregate_latency_p50_ms")
+    private double aggregateLatencyP50Ms;
+    
+    @JsonProperty("aggregate_latency_p95_ms")
+    private double aggregateLatencyP95Ms;
+    
+    @JsonProperty("aggregate_latency_p99_ms")
+    private double aggregateLatencyP99Ms;
+    
     // Mixed workload optimal metrics
     @JsonProperty("mixed_workload_optimal_throughput_mbps")
     private double mixedWorkloadOptimalThroughputMBps;
@@ -135,6 +154,24 @@ public class SystemMetrics {
     public double getSeqwriteThroughputMBps() { return seqwriteThroughputMBps; }
     public void setSeqwriteThroughputMBps(double seqwriteThroughputMBps) { this.seqwriteThroughputMBps = seqwriteThroughputMBps; }
     
+    public double getAggregateThroughputMBps() { return aggregateThroughputMBps; }
+    public void setAggregateThroughputMBps(double aggregateThroughputMBps) { this.aggregateThroughputMBps = aggregateThroughputMBps; }
+    
+    public double getAggregateIOPS() { return aggregateIOPS; }
+    public void setAggregateIOPS(double aggregateIOPS) { this.aggregateIOPS = aggregateIOPS; }
+    
+    public double getAggregateLatencyMeanMs() { return aggregateLatencyMeanMs; }
+    public void setAggregateLatencyMeanMs(double aggregateLatencyMeanMs) { this.aggregateLatencyMeanMs = aggregateLatencyMeanMs; }
+    
+    public double getAggregateLatencyP50Ms() { return aggregateLatencyP50Ms; }
+    public void setAggregateLatencyP50Ms(double aggregateLatencyP50Ms) { this.aggregateLatencyP50Ms = aggregateLatencyP50Ms; }
+    
+    public double getAggregateLatencyP95Ms() { return aggregateLatencyP95Ms; }
+    public void setAggregateLatencyP95Ms(double aggregateLatencyP95Ms) { this.aggregateLatencyP95Ms = aggregateLatencyP95Ms; }
+    
+    public double getAggregateLatencyP99Ms() { return aggregateLatencyP99Ms; }
+    public void setAggregateLatencyP99Ms(double aggregateLatencyP99Ms) { this.aggregateLatencyP99Ms = aggregateLatencyP99Ms; }
+    
     public double getMixedWorkloadOptimalThroughputMBps() { return mixedWorkloadOptimalThroughputMBps; }
     public void setMixedWorkloadOptimalThroughputMBps(double mixedWorkloadOptimalThroughputMBps) { this.mixedWorkloadOptimalThroughputMBps = mixedWorkloadOptimalThroughputMBps; }
     
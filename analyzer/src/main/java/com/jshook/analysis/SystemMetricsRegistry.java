@@ -0,0 +1,71 @@
+package com.jshook.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory handoff of SystemMetrics from Stage 2 to Stages 3 and 4.
+ *
+ * Stage 2 registers the metrics of every system it analyzes, so later stages and every ranking
+ * function read them without touching disk. The JSON files written next to the system reports are
+ * only read for systems not analyzed in this process, e.g. when resuming from an existing report
+ * directory; loaded metrics are kept for later lookups as well.
+ */
+public class SystemMetricsRegistry {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, SystemMetrics> metrics = new ConcurrentHashMap<>();
+
+    public SystemMetricsRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registers freshly computed metrics, replacing any earlier entry for the same system
+     */
+    public void put(SystemMetrics systemMetrics) {
+        metrics.put(key(systemMetrics.getSystemProfile(), systemMetrics.getSystemName()), systemMetrics);
+    }
+
+    /**
+     * Returns the metrics of a system, falling back to its JSON file in the report directory
+     * @return The metrics, or null if the system was neither analyzed nor has a JSON file
+     */
+    public SystemMetrics get(Path reportPath, String systemProfile, String systemName) throws IOException {
+        String key = key(systemProfile, systemName);
+        SystemMetrics systemMetrics = metrics.get(key);
+        if (systemMetrics != null) {
+            return systemMetrics;
+        }
+
+        Path metricsPath = reportPath.resolve(key + ".json");
+        if (!Files.exists(metricsPath)) {
+            return null;
+        }
+        systemMetrics = objectMapper.readValue(metricsPath.toFile(), SystemMetrics.class);
+        SystemMetrics existing = metrics.putIfAbsent(key, systemMetrics);
+        return existing != null ? existing : systemMetrics;
+    }
+
+    /**
+     * Returns the metrics held in memory for a "profile__system" key, without reading disk
+     */
+    public SystemMetrics peek(String systemKey) {
+        return metrics.get(systemKey);
+    }
+
+    /**
+     * Forgets a system, e.g. after it disappeared from the result tree
+     */
+    public void remove(String systemKey) {
+        metrics.remove(systemKey);
+    }
+
+    private static String key(String systemProfile, String systemName) {
+        return systemProfile + "__" + systemName;
+    }
+}
@@ -0,0 +1,342 @@
+package com.jshook.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader for gzip-compressed tar archives such as logs.tar.gz.
+ *
+ * Entries are read one at a time straight from the compressed stream; nothing is extracted to
+ * disk and only the current 512-byte header is held in memory. Supports ustar archives including
+ * GNU long names ('L') and pax extended headers ('x'), which covers archives written by GNU tar
+ * and bsdtar.
+ *
+ * Usage mirrors ZipInputStream: call nextEntry() until it returns null and read the entry's data
+ * from getInputStream() in between.
+ */
+public class TarGzReader implements Closeable {
+
+    private static final int BLOCK_SIZE = 512;
+
+    private final InputStream input;
+    private final byte[] header = new byte[BLOCK_SIZE];
+    private long entryRemaining;
+    private long entryPadding;
+    private Entry currentEntry;
+
+    public TarGzReader(Path archive) throws IOException {
+        this(Files.newInputStream(archive));
+    }
+
+    public TarGzReader(InputStream compressed) throws IOException {
+        this.input = new GZIPInputStream(new BufferedInputStream(compressed, 64 * 1024), 64 * 1024);
+    }
+
+    /**
+     * Advances to the next file entry, skipping any unread data of the current one
+     * @return The next regular file entry, or null at the end of the archive
+     */
+    public Entry nextEntry() throws IOException {
+        String longName = null;
+        while (true) {
+            skipCurrentEntry();
+
+            if (!readBlock(header)) {
+                return null;
+            }
+            if (isZeroBlock(header)) {
+                // End-of-archive marker; a second zero block may follow but is not required
+                return null;
+            }
+            verifyChecksum();
+
+            String name = readString(0, 100);
+            long size = readNumber(124, 12);
+            char type = (char) header[156];
+            if (readString(257, 5).equals("ustar")) {
+                String prefix = readString(345, 155);
+                if (!prefix.isEmpty()) {
+                    name = prefix + "/" + name;
+                }
+            }
+
+            entryRemaining = size;
+            entryPadding = (BLOCK_SIZE - (size % BLOCK_SIZE)) % BLOCK_SIZE;
+
+            switch (type) {
+                case 'L':
+                    // GNU long name: the data holds the name of the following entry
+                    longName = trimNul(new String(readEntryData(), StandardCharsets.UTF_8));
+                    break;
+                case 'x':
+                    // pax extended header: only the path record matters here
+                    String paxPath = parsePaxPath(readEntryData());
+                    if (paxPath != null) {
+                        longName = paxPath;
+                    }
+                    break;
+                case '0':
+                case '\0':
+                case '7':
+                    currentEntry = new Entry(normalizeName(longName != null ? longName : name), size);
+                    return currentEntry;
+                default:
+                    // Directories, links, global pax headers and other entry types carry no file data we need
+                    longName = null;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns a stream over the data of the current entry. Closing it does not close the archive.
+     */
+    public InputStream getInputStream() {
+        return new EntryInputStream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void skipCurrentEntry() throws IOException {
+        skipFully(entryRemaining + entryPadding);
+        entryRemaining = 0;
+        entryPadding = 0;
+        currentEntry = null;
+    }
+
+    private byte[] readEntryData() throws IOException {
+        if (entryRemaining > Integer.MAX_VALUE) {
+            throw new IOException("Tar header entry too large: " + entryRemaining + " bytes");
+        }
+        byte[] data = new byte[(int) entryRemaining];
+        readFully(data, data.length);
+        entryRemaining = 0;
+        return data;
+    }
+
+    private boolean readBlock(byte[] block) throws IOException {
+        int read = 0;
+        while (read < block.length) {
+            int count = input.read(block, read, block.length - read);
+            if (count < 0) {
+                if (read == 0) {
+                    return false;
+                }
+                throw new EOFException("Truncated tar header");
+            }
+            read += count;
+        }
+        return true;
+    }
+
+    private void readFully(byte[] buffer, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int count = input.read(buffer, read, length - read);
+            if (count < 0) {
+                throw new EOFException("Truncated tar entry");
+            }
+            read += count;
+        }
+    }
+
+    private void skipFully(long bytes) throws IOException {
+        byte[] scratch = null;
+        while (bytes > 0) {
+            long skipped = input.skip(bytes);
+            if (skipped <= 0) {
+                // GZIPInputStream.skip may return 0 before EOF, so fall back to reading
+                if (scratch == null) {
+                    scratch = new byte[8192];
+                }
+                int count = input.read(scratch, 0, (int) Math.min(scratch.length, bytes));
+                if (count < 0) {
+                    throw new EOFException("Truncated tar entry");
+                }
+                skipped = count;
+            }
+            bytes -= skipped;
+        }
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void verifyChecksum() throws IOException {
+        long expected = readNumber(148, 8);
+        long unsigned = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            // The checksum field itself counts as spaces
+            unsigned += (i >= 148 && i < 156) ? ' ' : (header[i] & 0xff);
+        }
+        if (unsigned != expected) {
+            throw new IOException("Invalid tar header checksum");
+        }
+    }
+
+    private String readString(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an octal number field, or a base-256 field (high bit set) as written for large sizes
+     */
+    private long readNumber(int offset, int length) throws IOException {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int i = offset + 1; i < offset + length; i++) {
+                value = (value << 8) | (header[i] & 0xff);
+            }
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value == 0 && b == ' ') {
+                    continue;
+                }
+                break;
+            }
+            if (b < '0' || b > '7') {
+                throw new IOException("Invalid tar header number field");
+            }
+            value = (value << 3) + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Extracts the path record from pax extended header data ("length key=value\n" records).
+     * Record lengths count bytes, so records are split before the UTF-8 values are decoded.
+     */
+    private static String parsePaxPath(byte[] data) {
+        int position = 0;
+        String path = null;
+        while (position < data.length) {
+            int space = position;
+            while (space < data.length && data[space] != ' ') {
+                space++;
+            }
+            if (space >= data.length) {
+                break;
+            }
+            int length;
+            try {
+                length = Integer.parseInt(new String(data, position, space - position, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                break;
+            }
+            if (length <= 0 || position + length > data.length || space + 1 > position + length - 1) {
+                break;
+            }
+            String record = new String(data, space + 1, position + length - 1 - (space + 1), StandardCharsets.UTF_8);
+            if (record.startsWith("path=")) {
+                path = record.substring("path=".length());
+            }
+            position += length;
+        }
+        return path;
+    }
+
+    private static String trimNul(String value) {
+        int end = value.indexOf('\0');
+        return end >= 0 ? value.substring(0, end) : value;
+    }
+
+    private static String normalizeName(String name) {
+        while (name.startsWith("./")) {
+            name = name.substring(2);
+        }
+        return name;
+    }
+
+    /**
+     * A regular file entry in the archive
+     */
+    public static class Entry {
+        private final String name;
+        private final long size;
+
+        Entry(String name, long size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        /** Path of the entry inside the archive */
+        public String getName() { return name; }
+        public long getSize() { return size; }
+
+        /** Last path component of the entry */
+        public String getFileName() {
+            int slash = name.lastIndexOf('/');
+            return slash >= 0 ? name.substring(slash + 1) : name;
+        }
+    }
+
+    /**
+     * View of the current entry's data, bounded to the entry size
+     */
+    private class EntryInputStream extends InputStream {
+        private final Entry entry = currentEntry;
+
+        @Override
+        public int read() throws IOException {
+            if (entry != currentEntry || entryRemaining <= 0) {
+                return -1;
+            }
+            int b = input.read();
+            if (b < 0) {
+                throw new EOFException("Truncated tar entry");
+            }
+            entryRemaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (entry != currentEntry || entryRemaining <= 0) {
+                return -1;
+            }
+            int count = input.read(buffer, offset, (int) Math.min(length, entryRemaining));
+            if (count < 0) {
+                throw new EOFException("Truncated tar entry");
+            }
+            entryRemaining -= count;
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return entry != currentEntry ? 0 : (int) Math.min(input.available(), entryRemaining);
+        }
+
+        @Override
+        public void close() {
+            // The archive stream stays open for the following entries
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.jshook.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Downsampled form of one fio time-series log (lat, clat, slat, bw or iops): consecutive time
+ * windows of equal width, each with the sample count, minimum, maximum, mean, median and 99th
+ * percentile of the values logged in it.
+ *
+ * Series are built by a Builder while a log is streamed, in memory bounded by the number of
+ * windows rather than the length of the log. Built series keep each window's histogram, so the
+ * distribution of any run of windows (e.g. the steady state after warm-up) can be recomputed.
+ */
+public final class TimeSeries {
+
+    /** Windows kept by default, enough for a sparkline or a steady-state scan */
+    public static final int DEFAULT_WINDOWS = 120;
+
+    private final long windowMillis;
+    private final long[] counts;
+    private final double[] min;
+    private final double[] max;
+    private final double[] mean;
+    private final double[] p50;
+    private final double[] p99;
+    private final LatencyHistogram[] histograms; // Null for empty windows
+
+    private TimeSeries(long windowMillis, long[] counts, double[] min, double[] max, double[] mean, double[] p50, double[] p99,
+                       LatencyHistogram[] histograms) {
+        this.windowMillis = windowMillis;
+        this.counts = counts;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.histograms = histograms;
+    }
+
+    /**
+     * Width of every window in milliseconds; window i covers [i * width, (i + 1) * width)
+     */
+    public long getWindowMillis() { return windowMillis; }
+
+    /**
+     * Number of windows, up to the last one with samples
+     */
+    public int size() { return counts.length; }
+
+    public long getCount(int window) { return counts[window]; }
+    public double getMin(int window) { return min[window]; }
+    public double getMax(int window) { return max[window]; }
+    public double getMean(int window) { return mean[window]; }
+    public double getP50(int window) { return p50[window]; }
+    public double getP99(int window) { return p99[window]; }
+
+    /**
+     * Number of logged samples over all windows
+     */
+    public long getTotalCount() {
+        return Arrays.stream(counts).sum();
+    }
+
+    /**
+     * Smallest logged value
+     */
+    public double getMin() {
+        double result = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) result = Math.min(result, min[i]);
+        }
+        return counts.length > 0 ? result : 0.0;
+    }
+
+    /**
+     * Largest logged value
+     */
+    public double getMax() {
+        double result = 0.0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) result = Math.max(result, max[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Mean of the samples logged in windows [fromWindow, toWindow)
+     */
+    public double getMean(int fromWindow, int toWindow) {
+        long count = 0;
+        double sum = 0.0;
+        for (int i = fromWindow; i < toWindow; i++) {
+            count += counts[i];
+            sum += mean[i] * counts[i];
+        }
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    /**
+     * Distribution of the samples logged in windows [fromWindow, toWindow), as a new histogram
+     */
+    public LatencyHistogram getHistogram(int fromWindow, int toWindow) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = fromWindow; i < toWindow; i++) {
+            if (histograms[i] != null) {
+                histogram.merge(histograms[i]);
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Per-window means, with empty windows as 0, e.g. for a sparkline
+     */
+    public List<Double> getMeans() {
+        List<Double> values = new ArrayList<>(counts.length);
+        for (double value : mean) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * Builds a series from samples in any time order. Windows start at 1 ms and double in width
+     * whenever a sample falls beyond the last window, merging neighbouring windows, so at most
+     * maxWindows windows of samples (as mergeable histograms) are held at any time.
+     */
+    public static final class Builder {
+        private final int maxWindows;
+        private long windowMillis = 1;
+        private final long[] counts;
+        private final long[] min;
+        private final long[] max;
+        private final double[] sums;
+        private final LatencyHistogram[] histograms;
+        private int used; // Windows up to the last with samples
+
+        public Builder() {
+            this(DEFAULT_WINDOWS);
+        }
+
+        public Builder(int maxWindows) {
+            if (maxWindows < 2) {
+                throw new IllegalArgumentException("A time series needs at least 2 windows");
+            }
+            this.maxWindows = maxWindows;
+            this.counts = new long[maxWindows];
+            this.min = new long[maxWindows];
+            this.max = new long[maxWindows];
+            this.sums = new double[maxWindows];
+            this.histograms = new LatencyHistogram[maxWindows];
+        }
+
+        /**
+         * Adds one logged sample
+         * @param timeMillis Time since the start of the job in milliseconds
+         * @param value Logged value, in the unit of the log
+         */
+        public void add(long timeMillis, long value) {
+            if (timeMillis < 0 || value < 0) {
+                return; // Not a meaningful sample
+            }
+            while (timeMillis / windowMillis >= maxWindows) {
+                widen();
+            }
+            int window = (int) (timeMillis / windowMillis);
+            if (counts[window] == 0) {
+                min[window] = value;
+                max[window] = value;
+                histograms[window] = new LatencyHistogram();
+            } else {
+                min[window] = Math.min(min[window], value);
+                max[window] = Math.max(max[window], value);
+            }
+            counts[window]++;
+            sums[window] += value;
+            histograms[window].record(value, 1);
+            used = Math.max(used, window + 1);
+        }
+
+        /**
+         * Doubles the window width, merging windows 2i and 2i + 1 into window i
+         */
+        private void widen() {
+            int merged = 0;
+            for (int window = 0; window < used; window += 2) {
+                int next = window + 1;
+                counts[merged] = counts[window];
+                min[merged] = min[window];
+                max[merged] = max[window];
+                sums[merged] = sums[window];
+                histograms[merged] = histograms[window];
+                if (next < used && counts[next] > 0) {
+                    if (counts[merged] == 0) {
+                        min[merged] = min[next];
+                        max[merged] = max[next];
+                        histograms[merged] = histograms[next];
+                    } else {
+                        min[merged] = Math.min(min[merged], min[next]);
+                        max[merged] = Math.max(max[merged], max[next]);
+                        histograms[merged].merge(histograms[next]);
+                    }
+                    counts[merged] += counts[next];
+                    sums[merged] += sums[next];
+                }
+                merged++;
+            }
+            for (int window = merged; window < used; window++) {
+                counts[window] = 0;
+                sums[window] = 0.0;
+                histograms[window] = null;
+            }
+            used = merged;
+            windowMillis *= 2;
+        }
+
+        public TimeSeries build() {
+            double[] minValues = new double[used];
+            double[] maxValues = new double[used];
+            double[] means = new double[used];
+            double[] medians = new double[used];
+            double[] tails = new double[used];
+            for (int window = 0; window < used; window++) {
+                if (counts[window] > 0) {
+                    minValues[window] = min[window];
+                    maxValues[window] = max[window];
+                    means[window] = sums[window] / counts[window];
+                    medians[window] = histograms[window].getValueAtPercentile(50.0);
+                    tails[window] = histograms[window].getValueAtPercentile(99.0);
+                }
+            }
+            return new TimeSeries(windowMillis, Arrays.copyOf(counts, used), minValues, maxValues, means, medians, tails,
+                Arrays.copyOf(histograms, used));
+        }
+    }
+}
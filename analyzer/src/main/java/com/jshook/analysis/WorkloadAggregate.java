@@ -0,0 +1,224 @@
+package com.jshook.analysis;
+
+import java.util.*;
+
+/**
+ * Device-level view of one fio run: throughput and completion latency combined across all jobs
+ * and directions, as the device served them concurrently.
+ *
+ * Mixed workloads run randread, seqread and seqwrite jobs side by side, and the per-job numbers
+ * hide how they interfere. Throughput and IOPS add up; latency is the distribution of all
+ * completed I/Os, so every job and direction is weighted by its total_ios. When fio wrote json+
+ * bins for every direction the job histograms are merged and quantiles are exact. Otherwise each
+ * direction's percentile list is taken as a piecewise-linear distribution and the weighted
+ * mixture of those distributions is inverted.
+ */
+public final class WorkloadAggregate {
+
+    private static final int QUANTILE_ITERATIONS = 64;
+
+    private final double bandwidth;
+    private final double iops;
+    private final long totalIos;
+    private final double latencyMean;
+    private final LatencyHistogram histogram; // Merged bins, or null if a direction had none
+    private final List<Component> components;
+
+    private WorkloadAggregate(double bandwidth, double iops, long totalIos, double latencyMean,
+                              LatencyHistogram histogram, List<Component> components) {
+        this.bandwidth = bandwidth;
+        this.iops = iops;
+        this.totalIos = totalIos;
+        this.latencyMean = latencyMean;
+        this.histogram = histogram;
+        this.components = components;
+    }
+
+    /**
+     * Combines all jobs and directions of a fio result
+     */
+    public static WorkloadAggregate of(FioResult fioResult) {
+        double bandwidth = 0.0;
+        double iops = 0.0;
+        long totalIos = 0;
+        double latencyWeight = 0.0;
+        double latencySum = 0.0;
+        LatencyHistogram histogram = new LatencyHistogram();
+        boolean complete = true;
+        List<Component> components = new ArrayList<>();
+
+        List<FioResult.FioJob> jobs = fioResult.getJobs() != null ? fioResult.getJobs() : Collections.emptyList();
+        for (FioResult.FioJob job : jobs) {
+            if (job == null) {
+                continue;
+            }
+            for (FioResult.FioMetrics direction : Arrays.asList(job.getRead(), job.getWrite())) {
+                double weight = direction != null ? ioWeight(direction) : 0.0;
+                if (weight <= 0.0) {
+                    continue;
+                }
+                bandwidth += direction.getBandwidth();
+                iops += direction.getIops();
+                totalIos += direction.getTotalIos();
+
+                FioResult.LatencyStats latency = direction.getCompletionLatency();
+                if (latency == null) {
+                    complete = false;
+                    continue;
+                }
+                latencyWeight += weight;
+                latencySum += weight * latency.getMean();
+                if (latency.getHistogram() != null) {
+                    histogram.merge(latency.getHistogram());
+                } else {
+                    complete = false;
+                }
+                Component component = Component.of(weight, latency.getPercentiles());
+                if (component != null) {
+                    components.add(component);
+                }
+            }
+        }
+
+        return new WorkloadAggregate(bandwidth, iops, totalIos, latencyWeight > 0 ? latencySum / latencyWeight : 0.0,
+            complete && histogram.getTotalCount() > 0 ? histogram : null, components);
+    }
+
+    /**
+     * Combined bandwidth of all jobs and directions in KiB/s, as fio reports bw
+     */
+    public double getBandwidth() { return bandwidth; }
+
+    /**
+     * Combined IOPS of all jobs and directions
+     */
+    public double getIops() { return iops; }
+
+    /**
+     * I/Os completed by all jobs and directions, 0 if fio did not report total_ios
+     */
+    public long getTotalIos() { return totalIos; }
+
+    /**
+     * Mean completion latency over all I/Os in nanoseconds
+     */
+    public double getLatencyMean() { return latencyMean; }
+
+    /**
+     * Whether latency quantiles come from merged json+ histograms rather than percentile lists
+     */
+    public boolean isExact() { return histogram != null; }
+
+    /**
+     * Completion latency below which the given percentage of all I/Os completed
+     * @param percentile Percentage in [0, 100], e.g. 99.9
+     * @return Latency in nanoseconds, or 0 if no direction reported latencies
+     */
+    public double getLatencyAtPercentile(double percentile) {
+        if (histogram != null) {
+            return histogram.getValueAtPercentile(percentile);
+        }
+        if (components.isEmpty()) {
+            return 0.0;
+        }
+        double fraction = Math.min(1.0, Math.max(0.0, percentile / 100.0));
+        double totalWeight = 0.0;
+        double high = 0.0;
+        for (Component component : components) {
+            totalWeight += component.weight;
+            high = Math.max(high, component.values[component.values.length - 1]);
+        }
+        // The mixture CDF is monotone, so bisect for the smallest latency that reaches the fraction
+        double low = 0.0;
+        for (int i = 0; i < QUANTILE_ITERATIONS && high - low > 1e-6; i++) {
+            double middle = (low + high) / 2;
+            double below = 0.0;
+            for (Component component : components) {
+                below += component.weight * component.fractionBelow(middle);
+            }
+            if (below / totalWeight >= fraction) {
+                high = middle;
+            } else {
+                low = middle;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Weight of a direction in the combined distribution: its I/O count, or for results without
+     * total_ios the I/Os implied by its IOPS and runtime
+     */
+    private static double ioWeight(FioResult.FioMetrics direction) {
+        if (direction.getTotalIos() > 0) {
+            return direction.getTotalIos();
+        }
+        return direction.getIops() * direction.getRuntime() / 1000.0;
+    }
+
+    /**
+     * Latency distribution of one direction, from its percentile list
+     */
+    private static final class Component {
+        final double weight;
+        final double[] fractions; // Ascending
+        final double[] values;    // Latency in nanoseconds at each fraction, non-decreasing
+
+        private Component(double weight, double[] fractions, double[] values) {
+            this.weight = weight;
+            this.fractions = fractions;
+            this.values = values;
+        }
+
+        static Component of(double weight, Map<String, Double> percentiles) {
+            if (percentiles == null) {
+                return null;
+            }
+            TreeMap<Double, Double> points = new TreeMap<>();
+            for (Map.Entry<String, Double> percentile : percentiles.entrySet()) {
+                if (percentile.getValue() == null) {
+                    continue;
+                }
+                try {
+                    points.put(Double.parseDouble(percentile.getKey()) / 100.0, percentile.getValue());
+                } catch (NumberFormatException e) {
+                    // Not a percentile key
+                }
+            }
+            if (points.isEmpty()) {
+                return null;
+            }
+            double[] fractions = new double[points.size()];
+            double[] values = new double[points.size()];
+            int i = 0;
+            double previous = 0.0;
+            for (Map.Entry<Double, Double> point : points.entrySet()) {
+                fractions[i] = point.getKey();
+                values[i] = previous = Math.max(previous, point.getValue());
+                i++;
+            }
+            return new Component(weight, fractions, values);
+        }
+
+        /**
+         * Fraction of this direction's I/Os completed within a latency, interpolated linearly
+         * between listed percentiles (and from zero below the first)
+         */
+        double fractionBelow(double latency) {
+            if (latency >= values[values.length - 1]) {
+                return 1.0;
+            }
+            double previousValue = 0.0;
+            double previousFraction = 0.0;
+            for (int i = 0; i < values.length; i++) {
+                if (latency < values[i]) {
+                    double span = values[i] - previousValue;
+                    return previousFraction + (fractions[i] - previousFraction) * (latency - previousValue) / span;
+                }
+                previousValue = values[i];
+                previousFraction = fractions[i];
+            }
+            return 1.0;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.jshook.analysis;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,14 +11,37 @@ import java.util.stream.Collectors;
 /// Analyzes workload files and extracts performance metrics
 public class WorkloadAnalyzer {
     
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FioResultCache resultCache;
     
     /// Pattern to parse workload filenames
     private static final Pattern WORKLOAD_PATTERN = 
         Pattern.compile("(\\w+)-(\\d+)-(\\w+)\\.fio\\.json");
     
+    public WorkloadAnalyzer() {
+        this(new FioResultCache());
+    }
+    
+    /// Creates an analyzer that shares parsed results through the given cache
+    public WorkloadAnalyzer(FioResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+    
     /// Analyzes all workload files in a system directory
     public SystemAnalysis analyzeSystem(Path systemDir, List<Path> workloadFiles) throws IOException {
+        return analyzeSystem(systemDir, workloadFiles, Collections.emptyList());
+    }
+    
+    /// Analyzes the loose workload files of a system directory together with workloads
+    /// already read from its archives (see readArchive)
+    public SystemAnalysis analyzeSystem(Path systemDir, List<Path> workloadFiles, List<WorkloadResult> archivedResults) throws IOException {
+        List<WorkloadResult> results = readWorkloadFiles(workloadFiles);
+        results.addAll(archivedResults);
+        
+        return analyzeWorkloads(results);
+    }
+    
+    /// Parses loose workload files; files that cannot be parsed are reported and skipped
+    public List<WorkloadResult> readWorkloadFiles(List<Path> workloadFiles) {
         List<WorkloadResult> results = new ArrayList<>();
         
         for (Path workloadFile : workloadFiles) {
@@ -32,13 +54,53 @@ public class WorkloadAnalyzer {
                 System.err.println("Error parsing " + workloadFile + ": " + e.getMessage());
             }
         }
-        
+        return results;
+    }
+    
+    /// Analyzes workloads that were already parsed, e.g. read back from a ResultsStore
+    public SystemAnalysis analyzeWorkloads(List<WorkloadResult> results) {
         return performSystemAnalysis(results);
     }
     
+    /// Reads all *.fio.json entries of a logs.tar.gz archive, decompressing one entry at a time
+    /// straight from the archive stream. Entries whose file name is in excludedNames (e.g. because a loose copy
+    /// exists) are skipped. A damaged archive yields the entries read before the damage.
+    public List<WorkloadResult> readArchive(Path archive, Set<String> excludedNames) {
+        List<WorkloadResult> results = new ArrayList<>();
+        try (TarGzReader reader = new TarGzReader(archive)) {
+            TarGzReader.Entry entry;
+            while ((entry = reader.nextEntry()) != null) {
+                String filename = entry.getFileName();
+                if (!filename.endsWith(".fio.json") || excludedNames.contains(filename)) {
+                    continue;
+                }
+                try {
+                    // The entry is buffered, one at a time, because its digest must be known before
+                    // parsing for identical content to be parsed only once
+                    byte[] content = reader.getInputStream().readAllBytes();
+                    WorkloadResult result = parseWorkload(filename, entry.getName(), content, archive + "!/" + entry.getName());
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error parsing " + archive + "!/" + entry.getName() + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading archive " + archive + ": " + e.getMessage());
+        }
+        return results;
+    }
+    
     /// Parses a single workload file
     private WorkloadResult parseWorkloadFile(Path workloadFile) throws IOException {
         String filename = workloadFile.getFileName().toString();
+        return parseWorkload(filename, filename, Files.readAllBytes(workloadFile), workloadFile.toString());
+    }
+    
+    /// Parses a single workload; the file name determines the workload type. Identical content
+    /// seen before (under any name) is not parsed again.
+    private WorkloadResult parseWorkload(String filename, String source, byte[] content, String location) throws IOException {
         Matcher matcher = WORKLOAD_PATTERN.matcher(filename);
         
         if (!matcher.find()) {
@@ -50,9 +112,9 @@ public class WorkloadAnalyzer {
         String testId = matcher.group(2);        // 001, 007, 100, etc.
         String parameter = matcher.group(3);     // 1k, 64k, 32g, 1to4k_10Mseq, etc.
         
-        FioResult fioResult = objectMapper.readValue(workloadFile.toFile(), FioResult.class);
+        FioResult fioResult = resultCache.parse(content, location);
         
-        return new WorkloadResult(filename, workloadType, testId, parameter, fioResult);
+        return new WorkloadResult(filename, source, workloadType, testId, parameter, fioResult);
     }
     
     /// Performs comprehensive system analysis
@@ -253,13 +315,21 @@ public class WorkloadAnalyzer {
     /// Result classes
     public static class WorkloadResult {
         private final String filename;
+        private final String source;
         private final String workloadType;
         private final String testId;
         private final String parameter;
         private final FioResult fioResult;
+        private WorkloadTimeSeries timeSeries;
+        private SteadyState steadyState;
         
         public WorkloadResult(String filename, String workloadType, String testId, String parameter, FioResult fioResult) {
+            this(filename, filename, workloadType, testId, parameter, fioResult);
+        }
+        
+        public WorkloadResult(String filename, String source, String workloadType, String testId, String parameter, FioResult fioResult) {
             this.filename = filename;
+            this.source = source;
             this.workloadType = workloadType;
             this.testId = testId;
             this.parameter = parameter;
@@ -267,10 +337,18 @@ public class WorkloadAnalyzer {
         }
         
         public String getFilename() { return filename; }
+        /// Where the workload was read from: the file name, or the entry path inside an archive
+        public String getSource() { return source; }
         public String getWorkloadType() { return workloadType; }
         public String getTestId() { return testId; }
         public String getParameter() { return parameter; }
         public FioResult getFioResult() { return fioResult; }
+        /// The workload's fio time-series logs, or null if it has none
+        public WorkloadTimeSeries getTimeSeries() { return timeSeries; }
+        void setTimeSeries(WorkloadTimeSeries timeSeries) { this.timeSeries = timeSeries; }
+        /// Whether the workload ran in steady state, or null if not yet detected
+        public SteadyState getSteadyState() { return steadyState; }
+        void setSteadyState(SteadyState steadyState) { this.steadyState = steadyState; }
     }
     
     public static class SystemAnalysis {
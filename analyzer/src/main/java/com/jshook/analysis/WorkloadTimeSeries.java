@@ -0,0 +1,139 @@
+package com.jshook.analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The fio time-series logs of one workload, each downsampled to a TimeSeries.
+ *
+ * Logs are found next to the workload's result file, named as fio names them when the log
+ * prefix is the workload name: randread-001-1k_bw.1.log, randread-001-1k_clat.2.log.gz, ...
+ * The logs of all jobs of one kind are combined into a single series.
+ */
+public final class WorkloadTimeSeries {
+
+    /**
+     * Kinds of fio logs and the unit of their values
+     */
+    public enum Log {
+        LAT("lat", "ns"),
+        CLAT("clat", "ns"),
+        SLAT("slat", "ns"),
+        BW("bw", "KiB/s"),
+        IOPS("iops", "IOPS");
+
+        private final String suffix;
+        private final String unit;
+
+        Log(String suffix, String unit) {
+            this.suffix = suffix;
+            this.unit = unit;
+        }
+
+        public String getSuffix() { return suffix; }
+        public String getUnit() { return unit; }
+
+        static Log forSuffix(String suffix) {
+            for (Log log : values()) {
+                if (log.suffix.equals(suffix)) {
+                    return log;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final Pattern LOG_FILE = Pattern.compile("(.+?)(?:\\.fio)?_(lat|clat|slat|bw|iops)(?:\\.\\d+)?\\.log(?:\\.gz)?");
+
+    private final Map<Log, TimeSeries> series;
+
+    private WorkloadTimeSeries(Map<Log, TimeSeries> series) {
+        this.series = series;
+    }
+
+    /**
+     * Returns the series of one kind of log, or null if the workload has no such log
+     */
+    public TimeSeries get(Log log) {
+        return series.get(log);
+    }
+
+    /**
+     * Kinds of logs the workload has, in enum order
+     */
+    public Set<Log> getLogs() {
+        return Collections.unmodifiableSet(series.keySet());
+    }
+
+    /**
+     * Workload name a result file's logs are prefixed with, e.g. "randread-001-1k" for
+     * randread-001-1k.fio.json
+     */
+    public static String workloadName(String resultFilename) {
+        String name = resultFilename;
+        if (name.endsWith(".json")) name = name.substring(0, name.length() - ".json".length());
+        if (name.endsWith(".fio")) name = name.substring(0, name.length() - ".fio".length());
+        return name;
+    }
+
+    /**
+     * Reads the logs of all workloads in the given directories, each directory listed once and
+     * each log streamed once. Logs that cannot be read are reported and skipped.
+     * @return Series by directory, then by workload name (see workloadName); results of the same
+     *         name in different directories keep separate series
+     */
+    public static Map<Path, Map<String, WorkloadTimeSeries>> scan(Collection<Path> directories) throws IOException {
+        Map<Path, Map<String, WorkloadTimeSeries>> result = new HashMap<>();
+        for (Path directory : directories) {
+            Map<String, Map<Log, List<Path>>> logFiles = new TreeMap<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                files.sorted().forEach(file -> {
+                    Matcher matcher = LOG_FILE.matcher(file.getFileName().toString());
+                    if (matcher.matches() && Files.isRegularFile(file)) {
+                        logFiles.computeIfAbsent(matcher.group(1), name -> new EnumMap<>(Log.class))
+                            .computeIfAbsent(Log.forSuffix(matcher.group(2)), log -> new ArrayList<>())
+                            .add(file);
+                    }
+                });
+            }
+            Map<String, WorkloadTimeSeries> workloads = read(logFiles);
+            if (!workloads.isEmpty()) {
+                result.put(directory, workloads);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Combines the logs of each workload of one directory into its series
+     */
+    private static Map<String, WorkloadTimeSeries> read(Map<String, Map<Log, List<Path>>> logFiles) {
+        Map<String, WorkloadTimeSeries> result = new HashMap<>();
+        for (Map.Entry<String, Map<Log, List<Path>>> workload : logFiles.entrySet()) {
+            Map<Log, TimeSeries> series = new EnumMap<>(Log.class);
+            for (Map.Entry<Log, List<Path>> logs : workload.getValue().entrySet()) {
+                TimeSeries.Builder builder = new TimeSeries.Builder();
+                long samples = 0;
+                for (Path file : logs.getValue()) {
+                    try {
+                        samples += FioLogReader.read(file, builder);
+                    } catch (IOException e) {
+                        System.err.println("Error reading fio log " + file + ": " + e.getMessage());
+                    }
+                }
+                if (samples > 0) {
+                    series.put(logs.getKey(), builder.build());
+                }
+            }
+            if (!series.isEmpty()) {
+                result.put(workload.getKey(), new WorkloadTimeSeries(series));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests streaming ingestion of fio time-series logs into downsampled series
+ */
+public class FioLogReaderTest {
+
+    @Test
+    void testParsesLogLinesAndSkipsMalformedOnes() throws Exception {
+        String log = "0, 100, 0, 4096, 0\n"
+            + "3, 300, 1, 4096, 8192, 0\r\n"
+            + "garbage\n"
+            + ", 5, 0, 4096\n"
+            + "7, 250.75, 0, 4096\n"
+            + "9, 50";
+        TimeSeries.Builder builder = new TimeSeries.Builder(4);
+        long samples = FioLogReader.read(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), builder);
+        TimeSeries series = builder.build();
+
+        assertEquals(4, samples);
+        assertEquals(4, series.getTotalCount());
+        // Samples at 0..9 ms do not fit 4 windows of 1 ms, so windows widen to 4 ms
+        assertEquals(4, series.getWindowMillis());
+        assertEquals(3, series.size());
+        assertEquals(2, series.getCount(0));
+        assertEquals(100.0, series.getMin(0));
+        assertEquals(300.0, series.getMax(0));
+        assertEquals(200.0, series.getMean(0));
+        assertEquals(250.0, series.getMean(1));
+        assertEquals(1, series.getCount(2));
+        assertEquals(50.0, series.getP99(2));
+        assertEquals(50.0, series.getMin());
+        assertEquals(300.0, series.getMax());
+    }
+
+    @Test
+    void testDownsamplingBoundsWindowCount() {
+        TimeSeries.Builder builder = new TimeSeries.Builder(10);
+        for (long time = 0; time < 100_000; time++) {
+            builder.add(time, time < 50_000 ? 1000 : 2000);
+        }
+        TimeSeries series = builder.build();
+
+        assertEquals(100_000, series.getTotalCount());
+        assertTrue(series.size() <= 10);
+        long windows = (100_000 + series.getWindowMillis() - 1) / series.getWindowMillis();
+        assertEquals(windows, series.size());
+        assertEquals(1000.0, series.getP50(0), 1000 * 0.004);
+        assertEquals(1000.0, series.getMean(0));
+        assertEquals(2000.0, series.getMax(series.size() - 1));
+        assertEquals(2000.0, series.getP99(series.size() - 1), 2000 * 0.004);
+    }
+}
@@ -0,0 +1,40 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * Tests that the result cache shares identical content and forgets rewritten and removed sources
+ */
+public class FioResultCacheTest {
+
+    private static final byte[] FIRST = "{\"fio version\": \"fio-3.35\", \"jobs\": []}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SECOND = "{\"fio version\": \"fio-3.36\", \"jobs\": []}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testRereadAndRemovedSourcesAreEvicted() throws Exception {
+        String systemA = File.separator + "results" + File.separator + "a";
+        String systemB = File.separator + "results" + File.separator + "b";
+        FioResultCache cache = new FioResultCache();
+        FioResult shared = cache.parse(FIRST, systemA + File.separator + "randread-001-1k.fio.json");
+        assertSame(shared, cache.parse(FIRST, systemB + File.separator + "randread-001-1k.fio.json"));
+        assertEquals(1, cache.getDuplicateGroups().size());
+
+        // Rewriting one copy ends the duplication
+        cache.parse(SECOND, systemB + File.separator + "randread-001-1k.fio.json");
+        assertEquals(2, cache.getDistinctResults());
+        assertEquals(2, cache.getTotalSources());
+        assertTrue(cache.getDuplicateGroups().isEmpty());
+
+        // Removing a system's sources evicts content no other source refers to
+        cache.parse(FIRST, systemB + File.separator + "logs.tar.gz!/seqread-001-128k.fio.json");
+        cache.removeSources(Paths.get(systemB));
+        assertEquals(1, cache.getDistinctResults());
+        assertEquals(1, cache.getTotalSources());
+        assertEquals("fio-3.35", cache.parse(FIRST, systemA + File.separator + "randread-001-1k.fio.json").getFioVersion());
+    }
+}
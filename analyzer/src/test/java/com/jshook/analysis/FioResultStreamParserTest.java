@@ -0,0 +1,92 @@
+package com.jshook.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Validates the streaming fio parser against Jackson databinding
+ */
+public class FioResultStreamParserTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void testMatchesDatabindOnHistoricResults() throws IOException {
+        Path historic = Paths.get("..", "historic");
+        assumeTrue(Files.isDirectory(historic), "historic/ corpus not available");
+        
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(historic)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(".fio.json"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty(), "No *.fio.json files found in historic/");
+        
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            FioResult expected = objectMapper.readValue(content, FioResult.class);
+            FioResult actual = FioResultStreamParser.parse(content);
+            assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(actual), file.toString());
+        }
+    }
+    
+    @Test
+    void testSkipsUnusedFieldsAndHandlesNulls() throws IOException {
+        String json = "{\"fio version\":\"fio-3.1\",\"global options\":{\"direct\":\"1\"},\"timestamp\":1500000000,"
+            + "\"jobs\":[{\"jobname\":\"randread\",\"job options\":{\"bs\":\"4k\"},"
+            + "\"read\":{\"io_bytes\":4096,\"bw\":12.5,\"iops\":3,\"runtime\":1000,"
+            + "\"slat_ns\":{\"mean\":7.0},\"clat_ns\":{\"min\":1,\"mean\":250.5,"
+            + "\"percentile\":{\"50.000000\":200,\"99.000000\":900}}},"
+            + "\"write\":null,\"latency_us\":{\"2\":0.0}}],\"disk_util\":[{\"name\":\"sda\"}]}";
+        byte[] content = json.getBytes();
+        
+        FioResult expected = objectMapper.readValue(content, FioResult.class);
+        FioResult actual = FioResultStreamParser.parse(content);
+        assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(actual));
+        
+        FioResult.FioJob job = actual.getJobs().get(0);
+        assertEquals("randread", job.getJobname());
+        assertNull(job.getWrite());
+        assertEquals(250.5, job.getRead().getCompletionLatency().getMean());
+        assertEquals(900.0, job.getRead().getCompletionLatency().getP99());
+    }
+    
+    @Test
+    void testLatencyBinsBuildMergeableHistogram() throws IOException {
+        String json = "{\"jobs\":[{\"jobname\":\"seqread\",\"read\":{\"clat_ns\":{\"mean\":1000,"
+            + "\"bins\":{\"100\":50,\"1000\":45,\"100000\":4,\"2000000\":1}}}},"
+            + "{\"jobname\":\"seqwrite\",\"write\":{\"clat_ns\":{\"bins\":{\"100\":100}}}}]}";
+        byte[] content = json.getBytes();
+        FioResult result = FioResultStreamParser.parse(content);
+        
+        LatencyHistogram read = result.getJobs().get(0).getRead().getCompletionLatency().getHistogram();
+        assertEquals(100, read.getTotalCount());
+        assertEquals(100.0, read.getValueAtPercentile(50.0));
+        assertEquals(1000.0, read.getValueAtPercentile(95.0), 1000 * 0.004);
+        assertEquals(100000.0, read.getValueAtPercentile(99.0), 100000 * 0.004);
+        assertEquals(2000000.0, read.getValueAtPercentile(99.99), 2000000 * 0.004);
+        assertEquals(read.getValueAtPercentile(99.99),
+            result.getJobs().get(0).getRead().getCompletionLatency().getQuantile(99.99));
+        
+        // Databinding builds the same histogram
+        FioResult bound = objectMapper.readValue(content, FioResult.class);
+        assertEquals(read.getValueAtPercentile(99.0),
+            bound.getJobs().get(0).getRead().getCompletionLatency().getHistogram().getValueAtPercentile(99.0));
+        
+        read.merge(result.getJobs().get(1).getWrite().getCompletionLatency().getHistogram());
+        assertEquals(200, read.getTotalCount());
+        assertEquals(100.0, read.getValueAtPercentile(75.0));
+        assertEquals(1000.0, read.getValueAtPercentile(97.5), 1000 * 0.004);
+        assertEquals(100000.0, read.getValueAtPercentile(99.5), 100000 * 0.004);
+    }
+}
@@ -0,0 +1,54 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * Tests for loading, validation and reloading of ranking functions
+ */
+public class RankingFunctionRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testInvalidFunctionsAreSkipped() throws Exception {
+        Path file = tempDir.resolve(RankingFunctionRegistry.FILENAME);
+        Files.writeString(file, "{"
+            + "\"fast\": {\"components\": [{\"metric_name\": \"randread_iops\", \"weight\": 1.0}]},"
+            + "\"bad_mapping\": {\"components\": [{\"metric_name\": \"randread_iops\", \"mapping_function\": \"cubic\"}]},"
+            + "\"bad_weight\": {\"components\": [{\"metric_name\": \"randread_iops\", \"weight\": -1.0}]},"
+            + "\"default\": {\"components\": [{\"metric_name\": \"randread_throughput_mbps\"}]}"
+            + "}");
+
+        RankingFunctionRegistry registry = new RankingFunctionRegistry(file);
+
+        assertEquals(List.of("fast", "default"), List.copyOf(registry.getFunctionNames()));
+        assertEquals("fast", registry.getFirstFunctionName());
+        assertSame(registry.getFunction("fast"), registry.getFunction("fast"), "Compiled functions should be cached");
+        assertSame(registry.getFunction("default"), registry.getFunction("bad_mapping"), "Invalid functions fall back to default");
+    }
+
+    @Test
+    void testReloadsWhenFileChanges() throws Exception {
+        Path file = tempDir.resolve(RankingFunctionRegistry.FILENAME);
+        Files.writeString(file, "{\"default\": {\"components\": [{\"metric_name\": \"randread_iops\"}]}}");
+        RankingFunctionRegistry registry = new RankingFunctionRegistry(file);
+        ScoringFunction first = registry.getFunction("default");
+
+        Files.writeString(file, "{\"default\": {\"components\": [{\"metric_name\": \"randread_throughput_mbps\"}]},"
+            + "\"other\": {\"components\": [{\"metric_name\": \"randread_iops\"}]}}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000));
+
+        ScoringFunction reloaded = registry.getFunction("default");
+        assertNotSame(first, reloaded);
+        assertEquals("randread_throughput_mbps", reloaded.getConfiguration().getComponents().get(0).getMetricName());
+        assertTrue(registry.getFunctionNames().contains("other"));
+    }
+}
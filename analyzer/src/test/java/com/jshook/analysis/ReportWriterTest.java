@@ -0,0 +1,48 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for atomic replacement of reports by the streaming report writer
+ */
+public class ReportWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCommitReplacesReportAsUtf8() throws Exception {
+        Path target = tempDir.resolve("REPORT.md");
+        Files.writeString(target, "old");
+
+        ReportWriter section = ReportWriter.buffer();
+        section.append("| ").append(42).append(" | ❌ |\n");
+        try (ReportWriter report = ReportWriter.create(target)) {
+            report.append("# Report\n\n").append(section);
+            assertEquals("old", Files.readString(target), "Target must not change before commit");
+            report.commit();
+        }
+
+        assertEquals("# Report\n\n| 42 | ❌ |\n", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertEquals(1, Files.list(tempDir).count(), "No temporary file should remain");
+    }
+
+    @Test
+    void testCloseWithoutCommitKeepsPreviousReport() throws Exception {
+        Path target = tempDir.resolve("REPORT.md");
+        Files.writeString(target, "old");
+
+        try (ReportWriter report = ReportWriter.create(target)) {
+            report.append("partial");
+        }
+
+        assertEquals("old", Files.readString(target));
+        assertEquals(1, Files.list(tempDir).count(), "No temporary file should remain");
+    }
+}
@@ -0,0 +1,74 @@
+package com.jshook.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests that the binary results store reproduces the workloads and manifest it was written from
+ */
+public class ResultsStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testRoundTripPreservesWorkloadsAndManifest() throws Exception {
+        FioResult shared = FioResultStreamParser.parse(("{\"fio version\":\"fio-3.1\",\"timestamp\":1500000000,"
+            + "\"jobs\":[{\"jobname\":\"randread\",\"read\":{\"io_bytes\":4096,\"bw\":12.5,\"iops\":3,\"runtime\":1000,"
+            + "\"clat_ns\":{\"mean\":250.5,\"percentile\":{\"50.000000\":200,\"99.000000\":900,\"99.900000\":null},"
+            + "\"bins\":{\"180\":3,\"240\":1,\"1056\":2}}},\"write\":null},"
+            + "{\"jobname\":\"rw\",\"read\":{\"io_bytes\":1},\"write\":{\"bw\":7.25}}]}").getBytes());
+        FioResult empty = FioResultStreamParser.parse("{\"fio version\":\"fio-3.1\"}".getBytes());
+
+        Path systemDir = tempDir.resolve("profile/system-a");
+        List<WorkloadAnalyzer.WorkloadResult> workloads = List.of(
+            new WorkloadAnalyzer.WorkloadResult("randread_4k.fio.json", "randread_4k.fio.json", "randread", "4k", "4k", shared),
+            new WorkloadAnalyzer.WorkloadResult("copy.fio.json", "logs/copy.fio.json", "mixed", null, "50", shared),
+            new WorkloadAnalyzer.WorkloadResult("empty.fio.json", null, "randread", "8k", "8k", empty));
+        Map<String, Path> systems = new LinkedHashMap<>();
+        systems.put("system-b", tempDir.resolve("profile/system-b"));
+        systems.put("system-a", systemDir);
+        AnalysisManifest manifest = new AnalysisManifest(Map.of("profile",
+            new AnalysisManifest.SystemProfile(systems, tempDir.resolve("profile"))));
+
+        ResultsStore.Builder builder = new ResultsStore.Builder(tempDir);
+        builder.addSystem("profile", "system-a", systemDir, List.of("randread_4k.fio.json", "bad.fio.json"), workloads);
+        builder.addSystem("profile", "system-b", tempDir.resolve("profile/system-b"), List.of(), List.of());
+        Path file = tempDir.resolve(ResultsStore.FILENAME);
+        assertEquals(2, builder.write(file, manifest));
+
+        ResultsStore store = ResultsStore.open(file, tempDir);
+        assertEquals(List.of("system-b", "system-a"),
+            List.copyOf(store.getManifest().getSystemsForProfile("profile").keySet()));
+        assertEquals(systemDir, store.getManifest().getSystemsForProfile("profile").get("system-a"));
+        assertNull(store.getSystem("profile", "system-c"));
+
+        ResultsStore.StoredSystem stored = store.getSystem("profile", "system-a");
+        assertEquals(List.of("randread_4k.fio.json", "bad.fio.json"), stored.getListedFiles());
+        List<WorkloadAnalyzer.WorkloadResult> read = stored.getWorkloads();
+        assertEquals(workloads.size(), read.size());
+        for (int i = 0; i < workloads.size(); i++) {
+            WorkloadAnalyzer.WorkloadResult expected = workloads.get(i);
+            WorkloadAnalyzer.WorkloadResult actual = read.get(i);
+            assertEquals(expected.getFilename(), actual.getFilename());
+            assertEquals(expected.getSource(), actual.getSource());
+            assertEquals(expected.getWorkloadType(), actual.getWorkloadType());
+            assertEquals(expected.getTestId(), actual.getTestId());
+            assertEquals(expected.getParameter(), actual.getParameter());
+            assertEquals(objectMapper.valueToTree(expected.getFioResult()), objectMapper.valueToTree(actual.getFioResult()));
+        }
+        assertSame(read.get(0).getFioResult(), read.get(1).getFioResult(), "Shared results are stored once");
+        LatencyHistogram histogram = read.get(0).getFioResult().getJobs().get(0).getRead().getCompletionLatency().getHistogram();
+        assertEquals(6, histogram.getTotalCount());
+        assertEquals(shared.getJobs().get(0).getRead().getCompletionLatency().getQuantile(99.0), histogram.getValueAtPercentile(99.0));
+    }
+}
@@ -313,4 +313,195 @@ public class ScoringFunctionTest {
             assertEquals(results1.get(i).getTotalScore(), results2.get(i).getTotalScore(), 0.0001);
         }
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testUnknownMetricRejectedAtConstruction() {
+        ScoringFunction.ScoringConfiguration config = new ScoringFunction.ScoringConfiguration();
+        config.addComponent(new ScoringFunction.ScoringComponent("randread_throughput_mpbs", 1.0, false));
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new ScoringFunction(config));
+        assertTrue(e.getMessage().contains("randread_throughput_mpbs"));
+    }
+    
+    @Test
+    void testMetricAliasesResolveToSameValue() {
+        SystemMetrics system = testSystems.get(0);
+        assertEquals(ScoringMetric.RANDREAD_LATENCY_P99_US, ScoringMetric.forName("OPTIMAL_LATENCY_P99_MS"));
+        assertEquals(system.getRandreadThroughputMBps() / 1024.0,
+            ScoringMetric.forName("optimal_throughput_gbps").valueOf(system), 1e-9);
+    }
+    
+    @Test
+    void testTopSystemsMatchFullRanking() {
+        // Add a tie and a disqualified system to check that the order of ties is kept
+        List<SystemMetrics> systems = new ArrayList<>(testSystems);
+        SystemMetrics twin = new SystemMetrics("high_perf_twin", "test_profile");
+        twin.setRandreadThroughputMBps(testSystems.get(0).getRandreadThroughputMBps());
+        twin.setRandreadLatencyP99Us(testSystems.get(0).getRandreadLatencyP99Us());
+        twin.setKneePointLatencyIncreasePercent(testSystems.get(0).getKneePointLatencyIncreasePercent());
+        systems.add(0, new SystemMetrics("no_results", "test_profile"));
+        systems.add(twin);
+        
+        ScoringFunction scoringFunction = ScoringFunction.createDefault();
+        MetricTable table = MetricTable.of(systems);
+        List<ScoringFunction.ScoringResult> full = scoringFunction.scoreAndRankSystems(table);
+        
+        for (int limit = 1; limit <= systems.size() + 1; limit++) {
+            List<ScoringFunction.ScoringResult> top = scoringFunction.scoreTopSystems(table, limit);
+            assertEquals(Math.min(limit, systems.size()), top.size());
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(full.get(i).getSystemName(), top.get(i).getSystemName());
+                assertEquals(full.get(i).getExplanation(), top.get(i).getExplanation());
+            }
+        }
+    }
+    
+    @Test
+    void testBatchScorerSharesTermsAndMatchesSingleScoring() {
+        ScoringFunction.ScoringConfiguration throughputOnly = new ScoringFunction.ScoringConfiguration();
+        throughputOnly.addComponent(new ScoringFunction.ScoringComponent("randread_throughput_mbps", 1.0, false));
+        
+        ScoringFunction.ScoringConfiguration mixed = new ScoringFunction.ScoringConfiguration();
+        mixed.addComponent(new ScoringFunction.ScoringComponent("optimal_throughput_mbps", 0.5, false));
+        mixed.addComponent(new ScoringFunction.ScoringComponent("randread_latency_p99_us", 0.5, true));
+        
+        Map<String, ScoringFunction> functions = new LinkedHashMap<>();
+        functions.put("throughput", new ScoringFunction(throughputOnly));
+        functions.put("mixed", new ScoringFunction(mixed));
+        
+        BatchScorer batchScorer = new BatchScorer(MetricTable.of(testSystems));
+        Map<String, BatchScorer.Ranking> rankings = batchScorer.rankAll(functions, 0);
+        
+        // The throughput term is the same in both functions (the optimal_ name is an alias)
+        assertEquals(2, batchScorer.getDistinctTerms());
+        assertEquals(List.of("throughput", "mixed"), new ArrayList<>(rankings.keySet()));
+        for (Map.Entry<String, ScoringFunction> entry : functions.entrySet()) {
+            List<ScoringFunction.ScoringResult> expected = entry.getValue().scoreAndRankSystems(testSystems);
+            List<ScoringFunction.ScoringResult> actual = rankings.get(entry.getKey()).getResults();
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getSystemName(), actual.get(i).getSystemName());
+                // Shared columns and per-function scoring give the same numbers to the last digit
+                assertEquals(expected.get(i).getTotalScore(), actual.get(i).getTotalScore(), 0.0);
+                assertEquals(expected.get(i).getComponentScores(), actual.get(i).getComponentScores());
+                double[] componentScores = actual.get(i).getComponentScores().values().stream()
+                    .mapToDouble(Double::doubleValue).toArray();
+                assertEquals(actual.get(i).getTotalScore(), entry.getValue().totalScore(componentScores), 0.0);
+            }
+        }
+    }
+    
+    @Test
+    void testMinMaxNormalizationScalesAcrossSystems() {
+        ScoringFunction.ScoringComponent throughput = new ScoringFunction.ScoringComponent("randread_throughput_mbps", 1.0, false);
+        throughput.setNormalization("minmax");
+        ScoringFunction.ScoringConfiguration config = new ScoringFunction.ScoringConfiguration();
+        config.addComponent(throughput);
+        
+        List<ScoringFunction.ScoringResult> results = new ScoringFunction(config).scoreAndRankSystems(testSystems);
+        
+        // The best system scales to 1 and the weakest qualified system to the floor, not to 0
+        assertEquals(1.0, results.get(0).getTotalScore(), 1e-9);
+        ScoringFunction.ScoringResult weakest = results.get(results.size() - 1);
+        assertEquals(MetricStats.MINMAX_FLOOR, weakest.getTotalScore(), 1e-9);
+        assertFalse(weakest.isDisqualified());
+    }
+    
+    @Test
+    void testMetricStatsMatchTwoPassStatistics() {
+        double[] values = {120.5, 80.25, 3000.0, 15.0, 640.0, 640.0};
+        MetricStats stats = new MetricStats();
+        for (double value : values) {
+            stats.add(value);
+        }
+        
+        double mean = Arrays.stream(values).average().orElse(0.0);
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).average().orElse(0.0);
+        assertEquals(values.length, stats.getCount());
+        assertEquals(15.0, stats.getMin(), 0.0);
+        assertEquals(3000.0, stats.getMax(), 0.0);
+        assertEquals(mean, stats.getMean(), 1e-9);
+        assertEquals(Math.sqrt(variance), stats.getStdDev(), 1e-9);
+        
+        // Taking values back leaves the stats of the remaining values
+        stats.remove(3000.0, 15.0, 640.0);
+        stats.remove(120.5, 15.0, 640.0);
+        double[] remaining = {80.25, 15.0, 640.0, 640.0};
+        double remainingMean = Arrays.stream(remaining).average().orElse(0.0);
+        double remainingVariance = Arrays.stream(remaining).map(v -> (v - remainingMean) * (v - remainingMean)).average().orElse(0.0);
+        assertEquals(remaining.length, stats.getCount());
+        assertEquals(640.0, stats.getMax(), 0.0);
+        assertEquals(remainingMean, stats.getMean(), 1e-9);
+        assertEquals(Math.sqrt(remainingVariance), stats.getStdDev(), 1e-9);
+    }
+    
+    @Test
+    void testIncrementalRankingIndexMatchesBatchScoring() {
+        ScoringFunction.ScoringComponent throughput = new ScoringFunction.ScoringComponent("randread_throughput_mbps", 0.6, false);
+        throughput.setNormalization("minmax");
+        ScoringFunction.ScoringComponent latency = new ScoringFunction.ScoringComponent("randread_latency_p99_us", 0.4, true);
+        latency.setThresholdValue(1000.0);
+        ScoringFunction.ScoringConfiguration config = new ScoringFunction.ScoringConfiguration();
+        config.addComponent(throughput);
+        config.addComponent(latency);
+        ScoringFunction scoringFunction = new ScoringFunction(config);
+        IncrementalRankingIndex index = new IncrementalRankingIndex(scoringFunction);
+        
+        List<SystemMetrics> systems = new ArrayList<>(testSystems);
+        assertSameRanking(scoringFunction, index, systems);
+        
+        // A system inside the current throughput range leaves the normalization alone
+        SystemMetrics inRange = new SystemMetrics("in_range", "test_profile");
+        inRange.setRandreadThroughputMBps(1500.0);
+        inRange.setRandreadLatencyP99Us(150.0);
+        systems.add(inRange);
+        long rescored = index.getRescoredSystems();
+        assertSameRanking(scoringFunction, index, systems);
+        assertEquals(rescored + 1, index.getRescoredSystems());
+        
+        // A new maximum moves the minmax range, so every system is re-scored
+        SystemMetrics fastest = new SystemMetrics("fastest", "test_profile");
+        fastest.setRandreadThroughputMBps(4000.0);
+        fastest.setRandreadLatencyP99Us(80.0);
+        systems.add(fastest);
+        assertSameRanking(scoringFunction, index, systems);
+        
+        systems.remove(fastest);
+        systems.remove(0);
+        assertSameRanking(scoringFunction, index, systems);
+        assertEquals(systems.size(), index.size());
+        
+        // zscore stats move with every change; a batch of changes re-scores each system once
+        ScoringFunction.ScoringComponent zscoreThroughput = new ScoringFunction.ScoringComponent("randread_throughput_mbps", 0.6, false);
+        zscoreThroughput.setNormalization("zscore");
+        ScoringFunction.ScoringConfiguration zscoreConfig = new ScoringFunction.ScoringConfiguration();
+        zscoreConfig.addComponent(zscoreThroughput);
+        zscoreConfig.addComponent(latency);
+        ScoringFunction zscoreFunction = new ScoringFunction(zscoreConfig);
+        IncrementalRankingIndex zscoreIndex = new IncrementalRankingIndex(zscoreFunction);
+        assertSameRanking(zscoreFunction, zscoreIndex, systems);
+        assertEquals(systems.size(), zscoreIndex.getRescoredSystems());
+        
+        systems.add(fastest);
+        systems.remove(0);
+        rescored = zscoreIndex.getRescoredSystems();
+        assertSameRanking(zscoreFunction, zscoreIndex, systems);
+        assertEquals(rescored + systems.size(), zscoreIndex.getRescoredSystems());
+        
+        rescored = zscoreIndex.getRescoredSystems();
+        assertSameRanking(zscoreFunction, zscoreIndex, systems);
+        assertEquals(rescored, zscoreIndex.getRescoredSystems());
+    }
+    
+    private void assertSameRanking(ScoringFunction scoringFunction, IncrementalRankingIndex index, List<SystemMetrics> systems) {
+        MetricTable table = MetricTable.of(systems);
+        BatchScorer.Ranking expected = new BatchScorer(table).rank(scoringFunction, 0);
+        BatchScorer.Ranking actual = index.rank(table, 0);
+        assertArrayEquals(expected.getTotalScores(), actual.getTotalScores(), 1e-12);
+        assertEquals(expected.getResults().size(), actual.getResults().size());
+        for (int i = 0; i < expected.getResults().size(); i++) {
+            assertEquals(expected.getResults().get(i).getSystemName(), actual.getResults().get(i).getSystemName());
+            assertEquals(expected.getResults().get(i).getExplanation(), actual.getResults().get(i).getExplanation());
+        }
+    }
+}
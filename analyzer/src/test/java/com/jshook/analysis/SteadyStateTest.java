@@ -0,0 +1,109 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Tests steady-state detection from fio logs and from fio's bw/iops sample statistics
+ */
+public class SteadyStateTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWarmupIsTrimmedFromLoggedRun() throws Exception {
+        // 10 s at 900 MiB/s before the SLC cache fills, then 50 s at 400 MiB/s, logged every 500 ms
+        StringBuilder log = new StringBuilder();
+        for (long time = 0; time < 60_000; time += 500) {
+            log.append(time).append(", ").append(time < 10_000 ? 900_000 : 400_000).append(", 0, 4096\n");
+        }
+        Files.write(tempDir.resolve("seqwrite-001-1m_bw.1.log"), log.toString().getBytes());
+        WorkloadTimeSeries timeSeries = WorkloadTimeSeries.scan(Collections.singletonList(tempDir))
+            .get(tempDir).get(WorkloadTimeSeries.workloadName("seqwrite-001-1m.fio.json"));
+
+        // fio reports the mean over the whole run
+        FioResult fioResult = result(483_333.33, 0.0, 0.0);
+        SteadyState steadyState = SteadyState.detect(fioResult, timeSeries);
+
+        assertEquals(SteadyState.Status.STEADY, steadyState.getStatus());
+        assertEquals("bw log", steadyState.getBasis());
+        assertTrue(steadyState.getWarmupMillis() > 9_000 && steadyState.getWarmupMillis() <= 10_000,
+            "Warm-up ends near 10 s: " + steadyState.getWarmupMillis());
+        FioResult.FioMetrics trimmed = steadyState.getTrimmedResult().getJobs().get(0).getWrite();
+        assertEquals(400_000.0, trimmed.getBandwidth(), 1.0);
+        assertEquals(483_333.33, fioResult.getJobs().get(0).getWrite().getBandwidth(), 0.01);
+    }
+
+    @Test
+    void testClatLogGivesSteadyWindowLatency() throws Exception {
+        // Same warm-up in the bw log; clat is 500 us during the warm-up, then alternates 1 ms and 3 ms
+        StringBuilder bw = new StringBuilder();
+        StringBuilder clat = new StringBuilder();
+        for (long time = 0; time < 60_000; time += 500) {
+            bw.append(time).append(", ").append(time < 10_000 ? 900_000 : 400_000).append(", 1, 4096\n");
+            for (int io = 0; io < 10; io++) {
+                long latency = time < 10_000 ? 500_000 : io % 2 == 0 ? 1_000_000 : 3_000_000;
+                clat.append(time + io).append(", ").append(latency).append(", 1, 4096\n");
+            }
+        }
+        Files.write(tempDir.resolve("seqwrite-001-1m_bw.1.log"), bw.toString().getBytes());
+        Files.write(tempDir.resolve("seqwrite-001-1m_clat.1.log"), clat.toString().getBytes());
+        WorkloadTimeSeries timeSeries = WorkloadTimeSeries.scan(Collections.singletonList(tempDir))
+            .get(tempDir).get(WorkloadTimeSeries.workloadName("seqwrite-001-1m.fio.json"));
+
+        SteadyState steadyState = SteadyState.detect(result(483_333.33, 0.0, 0.0), timeSeries);
+        FioResult.FioMetrics trimmed = steadyState.getTrimmedResult().getJobs().get(0).getWrite();
+        // A single job's clat log is its distribution, so the steady window is measured, not rescaled
+        FioResult.LatencyStats latency = trimmed.getCompletionLatency();
+        assertEquals(2_000_000.0, latency.getMean(), 2_000_000 * 0.01);
+        assertEquals(3_000_000.0, latency.getP99(), 3_000_000 * 0.004);
+        assertEquals(1_000_000.0, latency.getHistogram().getValueAtPercentile(50.0), 1_000_000 * 0.004);
+
+        // io_bytes, total_ios and runtime cover the steady window and agree with bw and iops
+        assertEquals(60_000 - steadyState.getWarmupMillis(), trimmed.getRuntime());
+        assertEquals(trimmed.getBandwidth(), trimmed.getIoBytes() / 1024.0 / (trimmed.getRuntime() / 1000.0), 1.0);
+        assertEquals(trimmed.getIops(), trimmed.getTotalIos() / (trimmed.getRuntime() / 1000.0), 0.1);
+    }
+
+    @Test
+    void testSampleSpreadClassifiesRunsWithoutLogs() {
+        assertEquals(SteadyState.Status.STEADY, SteadyState.detect(result(500_000, 500_000, 50_000), null).getStatus());
+
+        SteadyState unsteady = SteadyState.detect(result(500_000, 500_000, 150_000), null);
+        assertEquals(SteadyState.Status.UNSTEADY, unsteady.getStatus());
+        assertEquals("bw/iops samples", unsteady.getBasis());
+        assertNull(unsteady.getTrimmedResult());
+
+        assertEquals(SteadyState.Status.UNKNOWN, SteadyState.detect(result(500_000, 0.0, 0.0), null).getStatus());
+    }
+
+    private static FioResult result(double bandwidth, double bandwidthMean, double bandwidthDeviation) {
+        FioResult.FioMetrics write = new FioResult.FioMetrics();
+        write.setBandwidth(bandwidth);
+        write.setIops(bandwidth / 1024);
+        write.setRuntime(60_000);
+        write.setIoBytes(Math.round(bandwidth * 1024 * 60));
+        write.setTotalIos(Math.round(bandwidth / 1024 * 60));
+        write.setBandwidthMean(bandwidthMean);
+        write.setBandwidthDeviation(bandwidthDeviation);
+        write.setBandwidthSamples(bandwidthMean > 0 ? 120 : 0);
+        FioResult.LatencyStats latency = new FioResult.LatencyStats();
+        latency.setMean(2_000_000);
+        latency.setPercentiles(Map.of("99.000000", 4_000_000.0));
+        write.setCompletionLatency(latency);
+
+        FioResult.FioJob job = new FioResult.FioJob();
+        job.setJobname("seqwrite");
+        job.setWrite(write);
+        FioResult fioResult = new FioResult();
+        fioResult.setJobs(Collections.singletonList(job));
+        return fioResult;
+    }
+}
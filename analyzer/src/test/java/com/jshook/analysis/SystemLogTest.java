@@ -0,0 +1,48 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests that captured console output replays in write order and that the original streams are
+ * restored afterwards
+ */
+public class SystemLogTest {
+
+    @Test
+    void testReplayKeepsOrderAndUninstallRestoresStreams() throws Exception {
+        PrintStream savedOut = System.out;
+        PrintStream savedErr = System.err;
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        PrintStream shared = new PrintStream(console, true, StandardCharsets.UTF_8);
+        System.setOut(shared);
+        System.setErr(shared);
+        try {
+            SystemLog.install();
+            SystemLog.Captured<String> captured;
+            try {
+                captured = SystemLog.capture(() -> {
+                    System.out.println("Analyzing system: a");
+                    System.err.println("Error parsing a/randread-001-1k.fio.json");
+                    System.out.println("Done: a");
+                    return "a";
+                });
+                assertEquals("", console.toString(StandardCharsets.UTF_8));
+                assertEquals("a", captured.replay());
+            } finally {
+                SystemLog.uninstall();
+            }
+            assertSame(shared, System.out);
+            assertSame(shared, System.err);
+            assertEquals(String.format("Analyzing system: a%nError parsing a/randread-001-1k.fio.json%nDone: a%n"),
+                console.toString(StandardCharsets.UTF_8));
+        } finally {
+            System.setOut(savedOut);
+            System.setErr(savedErr);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests TarGzReader against archives built byte by byte: ustar, GNU long names, pax paths,
+ * base-256 sizes and damaged archives
+ */
+public class TarGzReaderTest {
+
+    @Test
+    void testReadsUstarEntriesAndSkipsDirectories() throws Exception {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        writeEntry(tar, header("logs/", '5', 0), new byte[0]);
+        writeEntry(tar, ustarHeader("randread-001-1k.fio.json", "./results", '0', 5), bytes("first"));
+        writeEntry(tar, header("seqread-001-128k.fio.json", '0', 6), bytes("second"));
+        tar.write(new byte[1024]);
+
+        try (TarGzReader reader = new TarGzReader(gzip(tar.toByteArray()))) {
+            TarGzReader.Entry entry = reader.nextEntry();
+            assertEquals("results/randread-001-1k.fio.json", entry.getName());
+            assertEquals("randread-001-1k.fio.json", entry.getFileName());
+            assertEquals(5, entry.getSize());
+            // The first entry is left unread and skipped by nextEntry
+            entry = reader.nextEntry();
+            assertEquals("seqread-001-128k.fio.json", entry.getName());
+            assertEquals("second", read(reader.getInputStream()));
+            assertNull(reader.nextEntry());
+        }
+    }
+
+    @Test
+    void testGnuLongNameAppliesToFollowingEntry() throws Exception {
+        String longName = "system/" + "x".repeat(120) + "/randread-001-1k.fio.json";
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        byte[] nameData = bytes(longName + "\0");
+        writeEntry(tar, header("././@LongLink", 'L', nameData.length), nameData);
+        writeEntry(tar, header(longName.substring(0, 99), '0', 4), bytes("data"));
+        writeEntry(tar, header("short.fio.json", '0', 2), bytes("ok"));
+
+        try (TarGzReader reader = new TarGzReader(gzip(tar.toByteArray()))) {
+            TarGzReader.Entry entry = reader.nextEntry();
+            assertEquals(longName, entry.getName());
+            assertEquals("data", read(reader.getInputStream()));
+            assertEquals("short.fio.json", reader.nextEntry().getName());
+            assertNull(reader.nextEntry());
+        }
+    }
+
+    @Test
+    void testPaxPathOverridesHeaderName() throws Exception {
+        String path = "deep/path/with ünïcode/mixed-301-1to4k_10Mseq.fio.json";
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        byte[] pax = bytes(paxRecord("mtime=1700000000.5") + paxRecord("path=" + path));
+        writeEntry(tar, header("PaxHeaders/mixed", 'x', pax.length), pax);
+        writeEntry(tar, header("mixed-301-1to4k_10Mseq.fio.json", '0', 3), bytes("abc"));
+
+        try (TarGzReader reader = new TarGzReader(gzip(tar.toByteArray()))) {
+            assertEquals(path, reader.nextEntry().getName());
+            assertEquals("abc", read(reader.getInputStream()));
+            assertNull(reader.nextEntry());
+        }
+    }
+
+    @Test
+    void testBase256Size() throws Exception {
+        byte[] header = header("big.fio.json", '0', 0);
+        // Base-256: high bit of the first byte set, big-endian value in the rest of the field
+        for (int i = 124; i < 136; i++) header[i] = 0;
+        header[124] = (byte) 0x80;
+        header[134] = 0x01;
+        header[135] = 0x02; // 258 bytes
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        byte[] data = new byte[258];
+        data[257] = 'z';
+        writeEntry(tar, checksum(header), data);
+        writeEntry(tar, header("next.fio.json", '0', 1), bytes("n"));
+
+        try (TarGzReader reader = new TarGzReader(gzip(tar.toByteArray()))) {
+            TarGzReader.Entry entry = reader.nextEntry();
+            assertEquals(258, entry.getSize());
+            byte[] content = reader.getInputStream().readAllBytes();
+            assertEquals(258, content.length);
+            assertEquals('z', content[257]);
+            assertEquals("next.fio.json", reader.nextEntry().getName());
+        }
+    }
+
+    @Test
+    void testTruncatedArchiveFails() throws Exception {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        tar.write(header("cut.fio.json", '0', 1000));
+        tar.write(new byte[100]);
+
+        try (TarGzReader reader = new TarGzReader(gzip(tar.toByteArray()))) {
+            reader.nextEntry();
+            assertThrows(EOFException.class, () -> reader.getInputStream().readAllBytes());
+        }
+        try (TarGzReader reader = new TarGzReader(gzip(new byte[300]))) {
+            assertThrows(EOFException.class, reader::nextEntry);
+        }
+    }
+
+    @Test
+    void testBadChecksumIsRejected() throws Exception {
+        byte[] header = header("bad.fio.json", '0', 1);
+        header[0] = 'c';
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        writeEntry(tar, header, bytes("x"));
+
+        try (TarGzReader reader = new TarGzReader(gzip(tar.toByteArray()))) {
+            IOException e = assertThrows(IOException.class, reader::nextEntry);
+            assertTrue(e.getMessage().contains("checksum"));
+        }
+    }
+
+    private static byte[] header(String name, char type, long size) {
+        return ustarHeader(name, "", type, size);
+    }
+
+    private static byte[] ustarHeader(String name, String prefix, char type, long size) {
+        byte[] header = new byte[512];
+        put(header, 0, name);
+        put(header, 100, "0000644");
+        put(header, 108, "0000000");
+        put(header, 116, "0000000");
+        put(header, 124, String.format("%011o", size));
+        put(header, 136, "00000000000");
+        header[156] = (byte) type;
+        put(header, 257, "ustar");
+        put(header, 263, "00");
+        put(header, 345, prefix);
+        return checksum(header);
+    }
+
+    private static byte[] checksum(byte[] header) {
+        for (int i = 148; i < 156; i++) header[i] = ' ';
+        long sum = 0;
+        for (byte b : header) sum += b & 0xff;
+        put(header, 148, String.format("%06o", sum));
+        header[154] = 0;
+        return header;
+    }
+
+    private static void put(byte[] header, int offset, String value) {
+        byte[] bytes = bytes(value);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    private static void writeEntry(ByteArrayOutputStream tar, byte[] header, byte[] data) throws IOException {
+        tar.write(header);
+        tar.write(data);
+        tar.write(new byte[(512 - data.length % 512) % 512]);
+    }
+
+    private static String paxRecord(String keyValue) {
+        // The length prefix counts itself, the space, the record and the newline
+        int length = bytes(keyValue).length + 2;
+        length += String.valueOf(length + String.valueOf(length).length()).length();
+        return length + " " + keyValue + "\n";
+    }
+
+    private static InputStream gzip(byte[] tar) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(tar);
+        }
+        return new ByteArrayInputStream(compressed.toByteArray());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(InputStream input) throws IOException {
+        return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
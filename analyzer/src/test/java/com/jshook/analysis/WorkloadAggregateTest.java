@@ -0,0 +1,58 @@
+package com.jshook.analysis;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests combining the jobs and directions of a fio result into one device-level workload
+ */
+public class WorkloadAggregateTest {
+
+    @Test
+    void testJobsAreWeightedByIoCount() throws IOException {
+        String percentiles = "{\"jobs\":[{\"jobname\":\"randread\",\"read\":{\"bw\":1024,\"iops\":90,\"total_ios\":900,"
+            + "\"clat_ns\":{\"mean\":100,\"percentile\":{\"50.000000\":100,\"100.000000\":100}}},\"write\":{\"total_ios\":0}},"
+            + "{\"jobname\":\"seqwrite\",\"write\":{\"bw\":2048,\"iops\":10,\"total_ios\":100,"
+            + "\"clat_ns\":{\"mean\":1000,\"percentile\":{\"50.000000\":1000,\"100.000000\":1000}}}}]}";
+        WorkloadAggregate interpolated = WorkloadAggregate.of(FioResultStreamParser.parse(percentiles.getBytes()));
+        assertEquals(3072.0, interpolated.getBandwidth());
+        assertEquals(100.0, interpolated.getIops());
+        assertEquals(1000, interpolated.getTotalIos());
+        assertEquals(190.0, interpolated.getLatencyMean(), 1e-9);
+        assertFalse(interpolated.isExact());
+        assertEquals(100.0, interpolated.getLatencyAtPercentile(90.0), 0.01);
+        assertEquals(1000.0, interpolated.getLatencyAtPercentile(95.0), 0.01);
+        
+        String bins = percentiles.replace("\"percentile\":{\"50.000000\":100,\"100.000000\":100}", "\"bins\":{\"100\":900}")
+            .replace("\"percentile\":{\"50.000000\":1000,\"100.000000\":1000}", "\"bins\":{\"1000\":100}");
+        WorkloadAggregate exact = WorkloadAggregate.of(FioResultStreamParser.parse(bins.getBytes()));
+        assertTrue(exact.isExact());
+        assertEquals(100.0, exact.getLatencyAtPercentile(90.0));
+        assertEquals(1000.0, exact.getLatencyAtPercentile(90.1), 1000 * 0.004);
+    }
+
+    @Test
+    void testPercentileListsAreMixedByIoCount() throws IOException {
+        // Piecewise-linear distributions: 0..200 ns with a median of 100, and 0..400 ns with a median of 300
+        String json = "{\"jobs\":[{\"jobname\":\"randread\",\"read\":{\"total_ios\":300,"
+            + "\"clat_ns\":{\"mean\":100,\"percentile\":{\"50.000000\":100,\"100.000000\":200}}}},"
+            + "{\"jobname\":\"seqwrite\",\"write\":{\"total_ios\":100,"
+            + "\"clat_ns\":{\"mean\":250,\"percentile\":{\"50.000000\":300,\"100.000000\":400}}}}]}";
+        WorkloadAggregate aggregate = WorkloadAggregate.of(FioResultStreamParser.parse(json.getBytes()));
+        assertFalse(aggregate.isExact());
+        assertEquals(137.5, aggregate.getLatencyMean(), 1e-9);
+        // 0.75 * (0.5 + (x - 100) / 200) + 0.25 * x / 600 = 0.5 at x = 120
+        assertEquals(120.0, aggregate.getLatencyAtPercentile(50.0), 1e-5);
+        // The first direction is complete at 200 ns; 0.75 + 0.25 * (0.5 + (x - 300) / 200) = 0.9 at x = 320
+        assertEquals(320.0, aggregate.getLatencyAtPercentile(90.0), 1e-5);
+        assertEquals(400.0, aggregate.getLatencyAtPercentile(100.0), 1e-5);
+
+        // Bins for only one direction are not enough for exact quantiles
+        String partialBins = json.replace("\"percentile\":{\"50.000000\":100,\"100.000000\":200}",
+            "\"bins\":{\"100\":150,\"200\":150},\"percentile\":{\"50.000000\":100,\"100.000000\":200}");
+        WorkloadAggregate partial = WorkloadAggregate.of(FioResultStreamParser.parse(partialBins.getBytes()));
+        assertFalse(partial.isExact());
+        assertEquals(120.0, partial.getLatencyAtPercentile(50.0), 1e-5);
+    }
+}